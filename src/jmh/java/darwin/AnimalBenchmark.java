@@ -0,0 +1,63 @@
+package darwin;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AnimalBenchmark {
+    @State(Scope.Thread)
+    public static class Parents {
+        AbstractMap map;
+        Animal dad;
+        Animal mom;
+        Vector2d position;
+        SimulationRandom random;
+
+        @Setup(Level.Trial)
+        public void createMap(){
+            map = new SnakeMap(100, 100, BenchmarkSimulation.jungleRatio);
+            random = new SimulationRandom(BenchmarkSimulation.seed).setStream(SimulationRandom.birthStream, 0, 0);
+            position = new Vector2d(50, 50);
+            dad = new Animal(position, map, BenchmarkSimulation.startEnergy, map, 0, random);
+            mom = new Animal(position, map, BenchmarkSimulation.startEnergy, map, 0, random);
+        }
+
+        void restoreEnergy(){
+            dad.setEnergy(BenchmarkSimulation.startEnergy);
+            mom.setEnergy(BenchmarkSimulation.startEnergy);
+        }
+    }
+
+    @Benchmark
+    public Animal initialBorn(Parents parents){
+        return new Animal(parents.position, parents.map, BenchmarkSimulation.startEnergy, parents.map, 0,
+                parents.random);
+    }
+
+    @Benchmark
+    public Animal normalBorn(Parents parents){
+        parents.restoreEnergy();
+        return new Animal(parents.dad, parents.mom, parents.map, parents.map, 0, parents.random);
+    }
+
+    @Benchmark
+    public Animal magicBorn(Parents parents){
+        return new Animal(parents.position, parents.map, parents.dad, BenchmarkSimulation.startEnergy,
+                parents.map, 0);
+    }
+
+    @Benchmark
+    public Animal replayedBorn(Parents parents){
+        parents.restoreEnergy();
+        return new Animal(parents.dad, parents.mom, parents.map, parents.map, 0, 0, parents.dad.getGenesLow(),
+                parents.mom.getGenesHigh());
+    }
+
+    @Benchmark
+    public Animal restoredFromCheckpoint(Parents parents){
+        return new Animal(parents.dad.getCell(), parents.map, parents.map, 0, BenchmarkSimulation.startEnergy,
+                MapDirections.NORTH, 0, 0, true, parents.dad.getGenesLow(), parents.dad.getGenesHigh());
+    }
+}
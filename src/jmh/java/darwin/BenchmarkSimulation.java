@@ -0,0 +1,50 @@
+package darwin;
+
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+public class BenchmarkSimulation {
+    static final int startEnergy = 200;
+    static final int moveEnergy = 5;
+    static final int grassEnergy = 30;
+    static final float jungleRatio = 0.4f;
+    static final int warmupDays = 10;
+    static final long seed = 42;
+    static final int movesPhase = 1;
+    static final int eatingPhase = 2;
+    static final int reproductionPhase = 3;
+    static final int grassGrowingPhase = 4;
+
+    @Param({"100", "300"})
+    public int mapSize;
+
+    @Param({"0.1", "0.5"})
+    public float density;
+
+    @Param({"snake", "wall"})
+    public String mapType;
+
+    Checkpoint checkpoint;
+    SimulationEngine engine;
+
+    @Setup(Level.Trial)
+    public void createCheckpoint(){
+        SimulationEngine warmedEngine = new SimulationEngine(mapSize, mapSize, jungleRatio,
+                Math.round(density * mapSize * mapSize), startEnergy, moveEnergy, grassEnergy, 0, false,
+                mapType.equals("wall"), (map, day, animals, grass, energy, lifetime, children, magicBorn) -> {}, seed);
+
+        for (int day = 0; day < warmupDays; day++)
+            warmedEngine.tick();
+
+        checkpoint = warmedEngine.createCheckpoint();
+    }
+
+    void restoreBefore(int phase){
+        engine = new SimulationEngine(checkpoint, (map, day, animals, grass, energy, lifetime, children, magicBorn) -> {});
+
+        if (phase > movesPhase - 1) engine.deleteDeadAnimals();
+        if (phase > movesPhase) engine.moveEachAnimal();
+        if (phase > eatingPhase) engine.eatGrasses();
+        if (phase > reproductionPhase) engine.animalReproduction();
+    }
+}
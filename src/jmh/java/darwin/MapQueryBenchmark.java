@@ -0,0 +1,33 @@
+package darwin;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapQueryBenchmark {
+    public static class RestoredMap extends BenchmarkSimulation {
+        @Setup(Level.Trial)
+        public void prepareQueries(){
+            restoreBefore(movesPhase);
+        }
+    }
+
+    @Benchmark
+    public List<Integer> getTheMostFrequentGenotype(RestoredMap state){
+        return state.engine.getMap().getTheMostFrequentGenotype();
+    }
+
+    @Benchmark
+    public Map<Vector2d, List<Animal>> getCrowdedPositions(RestoredMap state){
+        return state.engine.getMap().getPositionsByAnimalsMap(2, BenchmarkSimulation.startEnergy / 2f);
+    }
+
+    @Benchmark
+    public Map<Vector2d, List<Animal>> getAllPositions(RestoredMap state){
+        return state.engine.getMap().getPositionsByAnimalsMap(1, 0);
+    }
+}
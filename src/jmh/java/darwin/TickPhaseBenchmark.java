@@ -0,0 +1,62 @@
+package darwin;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TickPhaseBenchmark {
+    public static class BeforeMoves extends BenchmarkSimulation {
+        @Setup(Level.Invocation)
+        public void prepareMoves(){
+            restoreBefore(movesPhase);
+        }
+    }
+
+    public static class BeforeEating extends BenchmarkSimulation {
+        @Setup(Level.Invocation)
+        public void prepareEating(){
+            restoreBefore(eatingPhase);
+        }
+    }
+
+    public static class BeforeReproduction extends BenchmarkSimulation {
+        @Setup(Level.Invocation)
+        public void prepareReproduction(){
+            restoreBefore(reproductionPhase);
+        }
+    }
+
+    public static class BeforeGrassGrowing extends BenchmarkSimulation {
+        @Setup(Level.Invocation)
+        public void prepareGrassGrowing(){
+            restoreBefore(grassGrowingPhase);
+        }
+    }
+
+    @Benchmark
+    public SimulationEngine moveEachAnimal(BeforeMoves state){
+        state.engine.moveEachAnimal();
+        return state.engine;
+    }
+
+    @Benchmark
+    public SimulationEngine eatGrasses(BeforeEating state){
+        state.engine.eatGrasses();
+        return state.engine;
+    }
+
+    @Benchmark
+    public SimulationEngine animalReproduction(BeforeReproduction state){
+        state.engine.animalReproduction();
+        return state.engine;
+    }
+
+    @Benchmark
+    public AbstractMap grassGrowing(BeforeGrassGrowing state){
+        AbstractMap map = state.engine.getMap();
+        map.grassGrowing(new SimulationRandom(BenchmarkSimulation.seed).setStream(SimulationRandom.grassStream, 0, 0));
+        return map;
+    }
+}
@@ -1,128 +1,146 @@
 package darwin;
 
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.stream.Collectors;
 
 abstract class AbstractMap implements IObserver{
     protected final int width;
     protected final int height;
     protected final Vector2d jungleLowerLeft;
     protected final Vector2d jungleUpperRight;
-    protected boolean isFenced;
-    protected final Set<Vector2d> jungleFreePositions = new HashSet<>();
-    protected final Set<Vector2d> stepFreePositions = new HashSet<>();
-    protected final Map<Vector2d, Grass> grassMap = new HashMap<>();
-    protected final Map<Vector2d, Set<Animal>> animalMap = new HashMap<>();
-    protected final Map<List<Integer>, Integer> genotypeOccurrences = new HashMap<>();
-    protected Animal observedAnimal = null;
-
-
-    protected AbstractMap(int width, int height, float jungleRatio) {
+    protected final Topology topology;
+    protected final RankedCellSet jungleFreePositions;
+    protected final RankedCellSet stepFreePositions;
+    protected final IndexedCellSet grassCells;
+    protected final AnimalCellIndex animalCells;
+    protected final GenotypeTracker genotypeOccurrences = new GenotypeTracker();
+    protected List<Integer> dominantGenotype = new ArrayList<>();
+    protected boolean hasDominantGenotype = false;
+    protected long dominantGenesLow;
+    protected long dominantGenesHigh;
+    protected volatile Animal observedAnimal = null;
+    protected final IndexedCellSet changedCells;
+    protected int[] lastChangedCells = new int[0];
+    protected final IntArrayList grownGrassCells = new IntArrayList();
+
+
+    protected AbstractMap(int width, int height, float jungleRatio, Topology topology) {
         this.width = width;
         this.height = height;
+        this.topology = topology;
         int jungleWidth = Math.round(width * jungleRatio);
         int jungleHeight = Math.round(height * jungleRatio);
         jungleLowerLeft = new Vector2d((width - jungleWidth) / 2, (height - jungleHeight) / 2);
         jungleUpperRight = new Vector2d(jungleLowerLeft.getX() + jungleWidth - 1,
                 jungleLowerLeft.getY() + jungleHeight - 1);
+        animalCells = new AnimalCellIndex(width, height);
+        jungleFreePositions = new RankedCellSet(width * height);
+        stepFreePositions = new RankedCellSet(width * height);
+        changedCells = new IndexedCellSet(width * height);
+        grassCells = new IndexedCellSet(width * height);
 
         initialAddingAllPositionsAsFree();
     }
 
     protected void initialAddingAllPositionsAsFree(){
-        for (int x = 0; x < width; x++){
-            for (int y = 0; y < height; y++){
-                Vector2d currVector = new Vector2d(x, y);
-
-                if (isPositionInJungle(currVector))
-                    jungleFreePositions.add(currVector);
-                else
-                    stepFreePositions.add(currVector);
-
-                animalMap.put(currVector, new HashSet<>());
+        for (int y = 0; y < height; y++){
+            int rowStart = animalCells.toCell(0, y);
+            if (jungleLowerLeft.y <= y && jungleUpperRight.y >= y){
+                stepFreePositions.addRange(rowStart, rowStart + jungleLowerLeft.x);
+                jungleFreePositions.addRange(rowStart + jungleLowerLeft.x, rowStart + jungleUpperRight.x + 1);
+                stepFreePositions.addRange(rowStart + jungleUpperRight.x + 1, rowStart + width);
             }
+            else
+                stepFreePositions.addRange(rowStart, rowStart + width);
         }
     }
 
-    protected void grassGrowing(int grassEnergy){
-        grassGrowingForGivenArea(jungleFreePositions, grassEnergy);
-        grassGrowingForGivenArea(stepFreePositions, grassEnergy);
+    protected void grassGrowing(SimulationRandom random){
+        grownGrassCells.clear();
+        grassGrowingForGivenArea(jungleFreePositions, random);
+        grassGrowingForGivenArea(stepFreePositions, random);
     }
 
-    protected void grassGrowingForGivenArea(Set<Vector2d> freePositions, int grassEnergy){
+    protected void grassGrowingForGivenArea(RankedCellSet freePositions, SimulationRandom random){
         if (freePositions.size() > 0){
-            int randomNumber = ThreadLocalRandom.current().nextInt(0, freePositions.size());
-
-            int currentIndex = 0;
-            Vector2d randomPosition = null;
-            for (Vector2d position : freePositions) {
-                if (currentIndex == randomNumber){
-                    randomPosition = position;
-                    break;
-                }
+            int randomCell = freePositions.get(random.nextInt(freePositions.size()));
 
-                currentIndex++;
-            }
-
-            placeElement(new Grass(randomPosition, this, grassEnergy, this));
+            grownGrassCells.add(randomCell);
+            placeGrass(randomCell);
         }
     }
 
-    protected void addToGenotypeMap(List<Integer> genes){
-        if (genotypeOccurrences.containsKey(genes))
-            genotypeOccurrences.replace(genes, genotypeOccurrences.get(genes) + 1);
-        else
-            genotypeOccurrences.put(genes, 1);
+    protected void addToGenotypeMap(Animal animal){
+        genotypeOccurrences.increment(animal.getGenesLow(), animal.getGenesHigh());
     }
 
-    protected void removeFromGenotypeMap(List<Integer> genes){
-        genotypeOccurrences.replace(genes, genotypeOccurrences.get(genes) - 1);
-        if (genotypeOccurrences.get(genes) == 0)
-            genotypeOccurrences.remove(genes);
+    protected void removeFromGenotypeMap(Animal animal){
+        genotypeOccurrences.decrement(animal.getGenesLow(), animal.getGenesHigh());
     }
 
     protected void placeElement(AbstractMapElement mapElement){
-        Vector2d elementVector = mapElement.getPosition();
+        if (mapElement instanceof Animal) placeAnimal((Animal) mapElement);
+        else placeElementOnPosition(mapElement, mapElement.getPosition());
+    }
+
+    protected void placeAnimal(Animal animal){
+        int cell = animal.getCell();
+        getFreePositionsForCell(cell).remove(cell);
+        changedCells.add(cell);
+        animalCells.add(cell, animal);
+        addToGenotypeMap(animal);
+    }
 
+    protected void placeElementOnPosition(AbstractMapElement mapElement, Vector2d elementVector){
         if (isPositionInJungle(elementVector))
             placeElementForGivenMap(mapElement, elementVector, jungleFreePositions);
         else
             placeElementForGivenMap(mapElement, elementVector,  stepFreePositions);
-
-        if (mapElement instanceof Animal) addToGenotypeMap(((Animal) mapElement).getGenes());
     }
 
     protected void placeElementForGivenMap(AbstractMapElement mapElement, Vector2d elementVector,
-                                           Set<Vector2d> givenFreePositionsSet){
-        givenFreePositionsSet.remove(elementVector);
+                                           RankedCellSet givenFreePositionsSet){
+        int cell = animalCells.toCell(elementVector);
+        givenFreePositionsSet.remove(cell);
+        changedCells.add(cell);
 
         if (mapElement instanceof Animal)
-            animalMap.get(elementVector).add((Animal) mapElement);
+            animalCells.add(cell, (Animal) mapElement);
         else
-            grassMap.put(elementVector, (Grass) mapElement);
+            grassCells.add(cell);
     }
 
     protected void removeElement(AbstractMapElement mapElement, Vector2d elementPosition){
+        if (mapElement instanceof Animal) removeAnimal((Animal) mapElement, animalCells.toCell(elementPosition));
+        else removeElementFromPosition(mapElement, elementPosition);
+    }
+
+    protected void removeAnimal(Animal animal, int cell){
+        changedCells.add(cell);
+        animalCells.remove(cell, animal);
+        if (animalCells.count(cell) == 0 && !isGrassOnCell(cell)) getFreePositionsForCell(cell).add(cell);
+        removeFromGenotypeMap(animal);
+    }
+
+    protected void removeElementFromPosition(AbstractMapElement mapElement, Vector2d elementPosition){
         if (isPositionInJungle(elementPosition))
             removeGivenElement(mapElement, elementPosition, jungleFreePositions);
         else
             removeGivenElement(mapElement, elementPosition, stepFreePositions);
-
-
-        if (mapElement instanceof Animal) removeFromGenotypeMap(((Animal) mapElement).getGenes());
     }
 
     protected void removeGivenElement(AbstractMapElement mapElement, Vector2d elementPosition,
-                                      Set<Vector2d> givenFreePositions){
+                                      RankedCellSet givenFreePositions){
+        int cell = animalCells.toCell(elementPosition);
+        changedCells.add(cell);
+
         if (mapElement instanceof Animal)
-            animalMap.get(elementPosition).remove(mapElement);
+            animalCells.remove(cell, (Animal) mapElement);
         else
-            grassMap.remove(elementPosition);
+            grassCells.remove(cell);
 
 
-        if (animalMap.get(elementPosition).size() == 0 && !grassMap.containsKey(elementPosition))
-            givenFreePositions.add(elementPosition);
+        if (animalCells.count(cell) == 0 && !grassCells.contains(cell))
+            givenFreePositions.add(cell);
 
     }
 
@@ -130,72 +148,192 @@ abstract class AbstractMap implements IObserver{
         return jungleLowerLeft.precedes(position) && jungleUpperRight.follows(position);
     }
 
-    public Set<Animal> getAnimalsFromGivenPosition(Vector2d position){
-        return animalMap.get(position);
+    protected boolean isPositionInJungle(int x, int y){
+        return jungleLowerLeft.x <= x && jungleLowerLeft.y <= y && jungleUpperRight.x >= x && jungleUpperRight.y >= y;
     }
 
-    public List<Animal> getSortedListOfAnimalsOnPosition(Vector2d position){
-        return getAnimalsFromGivenPosition(position).stream()
-                .sorted((a1, a2) -> Float.compare(a1.getEnergy(), a2.getEnergy()))
-                .collect(Collectors.toCollection(ArrayList::new));
+    protected RankedCellSet getFreePositionsForCell(int cell){
+        if (isPositionInJungle(cell % width, cell / width))
+            return jungleFreePositions;
+
+        return stepFreePositions;
     }
 
-    public List<Animal> getSortedListOfAnimalsOnPositionDesc(Vector2d position){
-        List<Animal> animalsList = getSortedListOfAnimalsOnPosition(position);
+    public List<Animal> getAnimalsFromGivenPosition(Vector2d position){
+        return animalCells.getAnimals(animalCells.toCell(position));
+    }
+
+    public List<Animal> getSortedListOfAnimalsOnPosition(Vector2d position){
+        List<Animal> animalsList = getSortedListOfAnimalsOnPositionDesc(position);
         Collections.reverse(animalsList);
         return animalsList;
     }
 
+    public List<Animal> getSortedListOfAnimalsOnPositionDesc(Vector2d position){
+        return getAnimalsFromGivenPosition(position);
+    }
+
+    public Animal getTheStrongestAnimal(Vector2d position){
+        return animalCells.getTheStrongest(animalCells.toCell(position));
+    }
+
+    public Animal getTheStrongestAnimalWithDominantGenotype(Vector2d position){
+        int cell = animalCells.toCell(position);
+        for (int i = 0; i < animalCells.count(cell); i++){
+            if (hasDominantGenotype(animalCells.get(cell, i)))
+                return animalCells.get(cell, i);
+        }
+
+        return null;
+    }
+
+    public void animalEnergyChanged(Animal animal){
+        animalCells.updateOrder(animal.getCell(), animal);
+    }
+
     protected Map<Vector2d, List<Animal>> getPositionsByAnimalsMap(int minAnimals, float minEnergy){
         Map<Vector2d, List<Animal>> positionsByAnimals = new HashMap<>();
 
-        animalMap.forEach((k,v) -> {
-            List<Animal> animalsOnPosition = v.stream()
-                    .filter(e -> (e.getEnergy() >= minEnergy))
-                    .collect(Collectors.toCollection(ArrayList::new));
+        if (minAnimals >= animalCells.getCrowdedCellMinAnimals()){
+            IndexedCellSet crowdedCells = animalCells.getCrowdedCells();
+            for (int i = 0; i < crowdedCells.size(); i++)
+                addAnimalsFromCell(positionsByAnimals, crowdedCells.get(i), minAnimals, minEnergy);
+        }
+        else{
+            for (int cell = 0; cell < animalCells.size(); cell++)
+                addAnimalsFromCell(positionsByAnimals, cell, minAnimals, minEnergy);
+        }
+
+        return positionsByAnimals;
+    }
 
-            if (animalsOnPosition.size() >= minAnimals)
-                positionsByAnimals.put(k,animalsOnPosition);
+    private void addAnimalsFromCell(Map<Vector2d, List<Animal>> positionsByAnimals, int cell, int minAnimals,
+                                    float minEnergy){
+        if (animalCells.count(cell) < minAnimals) return;
 
-        });
+        List<Animal> animalsOnPosition = new ArrayList<>();
+        for (int i = 0; i < animalCells.count(cell); i++){
+            Animal animal = animalCells.get(cell, i);
+            if (animal.getEnergy() >= minEnergy)
+                animalsOnPosition.add(animal);
+        }
 
-        return positionsByAnimals;
+        if (animalsOnPosition.size() >= minAnimals)
+            positionsByAnimals.put(animalCells.toPosition(cell), animalsOnPosition);
     }
 
-    protected List<Vector2d> getPositionsWithoutAnimals(){
-        List<Vector2d> positionsWithoutAnimals = new ArrayList<>();
+    protected IntArrayList getCellsWithoutAnimals(){
+        IntArrayList cellsWithoutAnimals = new IntArrayList();
 
-        animalMap.forEach((k,v) -> {
-            if (v.size() == 0){
-                positionsWithoutAnimals.add(k);
+        for (int cell = 0; cell < animalCells.size(); cell++){
+            if (animalCells.count(cell) == 0){
+                cellsWithoutAnimals.add(cell);
             }
-        });
+        }
 
-        return positionsWithoutAnimals;
+        return cellsWithoutAnimals;
     }
 
     protected List<Integer> getTheMostFrequentGenotype(){
-        List<Integer> theMostFrequent = new ArrayList<>();
-        int maxOccurrences = 0;
+        if (genotypeOccurrences.size() == 0) return new ArrayList<>();
 
-        for (List<Integer> genotype: genotypeOccurrences.keySet()){
-            if (genotypeOccurrences.get(genotype) > maxOccurrences){
-                maxOccurrences = genotypeOccurrences.get(genotype);
-                theMostFrequent = genotype;
-            }
-        }
+        return Genome.toList(genotypeOccurrences.getGenesLow(0), genotypeOccurrences.getGenesHigh(0));
+    }
+
+    protected List<List<Integer>> getTheMostFrequentGenotypes(int number){
+        List<List<Integer>> theMostFrequent = new ArrayList<>();
+
+        for (int rank = 0; rank < Math.min(number, genotypeOccurrences.size()); rank++)
+            theMostFrequent.add(Genome.toList(genotypeOccurrences.getGenesLow(rank),
+                    genotypeOccurrences.getGenesHigh(rank)));
 
         return theMostFrequent;
     }
 
+    protected void cacheDominantGenotype(){
+        hasDominantGenotype = genotypeOccurrences.size() > 0;
+        if (hasDominantGenotype){
+            dominantGenesLow = genotypeOccurrences.getGenesLow(0);
+            dominantGenesHigh = genotypeOccurrences.getGenesHigh(0);
+        }
+        dominantGenotype = getTheMostFrequentGenotype();
+    }
+
+    public List<Integer> getDominantGenotype(){
+        return dominantGenotype;
+    }
+
+    public boolean hasDominantGenotype(Animal animal){
+        return hasDominantGenotype && animal.getGenesLow() == dominantGenesLow
+                && animal.getGenesHigh() == dominantGenesHigh;
+    }
+
     public void positionChanged(AbstractMapElement element, Vector2d oldPosition){
-        removeElement(element, oldPosition);
-        if (element instanceof Animal)
-            placeElement(element);
+        if (element instanceof Animal){
+            removeElementFromPosition(element, oldPosition);
+            placeElementOnPosition(element, element.getPosition());
+        }
+        else
+            removeElement(element, oldPosition);
+    }
+
+    public void positionChanged(AbstractMapElement element, int oldCell, int newCell){
+        Animal animal = (Animal) element;
+
+        animalCells.remove(oldCell, animal);
+        animalCells.add(newCell, animal);
+        refreshFreeState(oldCell);
+        refreshFreeState(newCell);
+        changedCells.add(oldCell);
+        changedCells.add(newCell);
+    }
+
+    protected void markCellChanged(int cell){
+        changedCells.add(cell);
+    }
+
+    protected void commitChangedCells(){
+        lastChangedCells = changedCells.toArray();
+        changedCells.clear();
+    }
+
+    public int[] getChangedCells(){
+        return lastChangedCells;
+    }
+
+    protected void refreshFreeState(int cell){
+        if (animalCells.count(cell) == 0 && !isGrassOnCell(cell))
+            getFreePositionsForCell(cell).add(cell);
+        else
+            getFreePositionsForCell(cell).remove(cell);
+    }
+
+    protected boolean isFreeStateChanged(int cell){
+        return (animalCells.count(cell) == 0 && !isGrassOnCell(cell)) != getFreePositionsForCell(cell).contains(cell);
+    }
+
+    protected void placeGrass(int cell){
+        getFreePositionsForCell(cell).remove(cell);
+        changedCells.add(cell);
+        grassCells.add(cell);
+    }
+
+    protected void removeGrass(int cell){
+        grassCells.remove(cell);
+        changedCells.add(cell);
+        if (animalCells.count(cell) == 0) getFreePositionsForCell(cell).add(cell);
+    }
+
+    protected boolean isGrassOnCell(int cell){
+        return grassCells.contains(cell);
     }
 
     protected boolean isGrassOnPosition(Vector2d position){
-        return grassMap.containsKey(position);
+        return grassCells.contains(animalCells.toCell(position));
+    }
+
+    public int getGrassNumber(){
+        return grassCells.size();
     }
 
     public int getHeight(){
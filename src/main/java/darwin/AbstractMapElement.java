@@ -3,24 +3,31 @@ package darwin;
 import javafx.scene.paint.Color;
 
 abstract class AbstractMapElement {
+    private static final double[] energyLevelThresholds = {0.2, 0.4, 0.6, 0.8, 1, 2, 4, 6, 8, 10};
+    static final Color[] energyColors = {Color.rgb(222, 221, 224), Color.rgb(224, 179, 173), Color.rgb(224, 142, 127),
+            Color.rgb(201, 124, 110), Color.rgb(182, 105, 91), Color.rgb(164, 92, 82), Color.rgb(146, 82, 73),
+            Color.rgb(128, 72, 64), Color.rgb(119, 67, 59), Color.rgb(88, 50, 44), Color.rgb(74, 42, 37),
+            Color.rgb(55, 31, 27)};
     protected Vector2d position;
     protected AbstractMap map;
     protected float energy;
     protected IObserver observer;
 
     public Color toColor(int startEnergy) {
-        if (energy == 0) return Color.rgb(222, 221, 224);
-        if (energy < 0.2 * startEnergy) return Color.rgb(224, 179, 173);
-        if (energy < 0.4 * startEnergy) return Color.rgb(224, 142, 127);
-        if (energy < 0.6 * startEnergy) return Color.rgb(201, 124, 110);
-        if (energy < 0.8 * startEnergy) return Color.rgb(182, 105, 91);
-        if (energy < startEnergy) return Color.rgb(164, 92, 82);
-        if (energy < 2 * startEnergy) return Color.rgb(146, 82, 73);
-        if (energy < 4 * startEnergy) return Color.rgb(128, 72, 64);
-        if (energy < 6 * startEnergy) return Color.rgb(119, 67, 59);
-        if (energy < 8 * startEnergy) return Color.rgb(88, 50, 44);
-        if (energy < 10 * startEnergy) return Color.rgb(74, 42, 37);
-        return Color.rgb(55, 31, 27);
+        return energyToColor(getEnergy(), startEnergy);
+    }
+
+    public static Color energyToColor(float energy, int startEnergy) {
+        return energyColors[energyLevel(energy, startEnergy)];
+    }
+
+    public static int energyLevel(float energy, int startEnergy) {
+        if (energy == 0) return 0;
+
+        int level = 1;
+        while (level < energyColors.length - 1 && energy >= energyLevelThresholds[level - 1] * startEnergy)
+            level++;
+        return level;
     }
 
     public Vector2d getPosition(){
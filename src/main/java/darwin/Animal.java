@@ -1,10 +1,6 @@
 package darwin;
 
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 import static java.lang.String.valueOf;
 
@@ -14,108 +10,117 @@ public class Animal extends AbstractMapElement {
     private int lifetime = 0;
     private boolean isAlive = true;
     private int childrenNumber = 0;
-    public boolean isObserved = false;
-    private final List<Integer> genes = new ArrayList<>();
+    public volatile boolean isObserved = false;
+    private long genesLow;
+    private long genesHigh;
     private final List<Animal> childrenAfterObservingStarts = new ArrayList<>();
+    private Population population = null;
+    private int slot = -1;
+    private int id = -1;
+    private int cell;
 
     //INITIAL BORN
-    public Animal(Vector2d startPosition, AbstractMap map, int startEnergy, IObserver observer, int birthDay) {
-        this.position = startPosition;
-        this.orient = getRandomOrient();
+    public Animal(Vector2d startPosition, AbstractMap map, int startEnergy, IObserver observer, int birthDay,
+                  SimulationRandom random) {
+        this.cell = map.animalCells.toCell(startPosition);
+        this.orient = getRandomOrient(random);
         this.map = map;
-        getRandomGenotype();
+        getRandomGenotype(random);
         this.energy = startEnergy;
         this.observer = observer;
         this.birthDay = birthDay;
     }
 
     //NORMAL BORN
-    public Animal(Animal dad, Animal mom, AbstractMap map, IObserver observer, int birthDay) {
-        this.position = dad.getPosition();
-        this.orient = getRandomOrient();
+    public Animal(Animal dad, Animal mom, AbstractMap map, IObserver observer, int birthDay, SimulationRandom random) {
+        this.cell = dad.getCell();
+        this.orient = getRandomOrient(random);
         this.map = map;
-        getGenotypeFromParents(dad, mom);
+        getGenotypeFromParents(dad, mom, random);
         this.energy = getEnergyFromParents(dad, mom);
         this.observer = observer;
         this.birthDay = birthDay;
-        dad.childrenNumber++;
-        mom.childrenNumber++;
+        dad.setChildrenNumber(dad.getChildrenNumber() + 1);
+        mom.setChildrenNumber(mom.getChildrenNumber() + 1);
     }
 
     //MAGIC BORN
     public Animal(Vector2d startPosition, AbstractMap map, Animal animalToCopy,
                   int startEnergy, IObserver observer, int birthDay){
-        this.position = startPosition;
+        this.cell = map.animalCells.toCell(startPosition);
         this.orient = animalToCopy.getOrient();
         this.map = map;
-        this.genes.addAll(animalToCopy.getGenes());
+        this.genesLow = animalToCopy.getGenesLow();
+        this.genesHigh = animalToCopy.getGenesHigh();
         this.energy = startEnergy;
         this.observer = observer;
         this.birthDay = birthDay;
     }
 
-    public void move(int moveEnergy) {
-        int directionNumber = genes.get(ThreadLocalRandom.current().nextInt(0, 32));
+    //RESTORED FROM CHECKPOINT
+    public Animal(int cell, AbstractMap map, IObserver observer, int birthDay, float energy,
+                  MapDirections orient, int lifetime, int childrenNumber, boolean isAlive, long genesLow,
+                  long genesHigh){
+        this.cell = cell;
+        this.orient = orient;
+        this.map = map;
+        this.genesLow = genesLow;
+        this.genesHigh = genesHigh;
+        this.energy = energy;
+        this.observer = observer;
+        this.birthDay = birthDay;
+        this.lifetime = lifetime;
+        this.childrenNumber = childrenNumber;
+        this.isAlive = isAlive;
+    }
+
+    //REPLAYED BORN
+    public Animal(Animal dad, Animal mom, AbstractMap map, IObserver observer, int birthDay, int orientNumber,
+                  long genesLow, long genesHigh) {
+        this.cell = dad.getCell();
+        this.orient = MapDirections.getMapDirectionFromDirectionNumber(orientNumber);
+        this.map = map;
+        this.genesLow = genesLow;
+        this.genesHigh = genesHigh;
+        this.energy = getEnergyFromParents(dad, mom);
+        this.observer = observer;
+        this.birthDay = birthDay;
+        dad.setChildrenNumber(dad.getChildrenNumber() + 1);
+        mom.setChildrenNumber(mom.getChildrenNumber() + 1);
+    }
+
+    public void move(int moveEnergy, SimulationRandom random) {
+        move(moveEnergy, getGene(random.nextInt(Genome.genesNumber)));
+    }
 
+    public void move(int moveEnergy, int directionNumber) {
         if (directionNumber == 0) moveForward();
         else if (directionNumber == 4) moveBackward();
-        else orient = orient.getDirectionAfterRotation(directionNumber);
+        else setOrientNumber(map.topology.rotate(getOrientNumber(), directionNumber));
 
-        energy -= moveEnergy;
-        lifetime++;
+        setEnergy(getEnergy() - moveEnergy);
+        setLifetime(getLifetime() + 1);
     }
 
     public void moveForward() {
-        Vector2d oldPosition = new Vector2d(position);
-
-        if (map.isFenced)
-            setPosition(validatePositionWhenFenced(position.add(orient.toUnitVector())));
-        else
-            setPosition(validatePositionWhenNotFenced(position.add(orient.toUnitVector())));
-
-        observer.positionChanged(this, oldPosition);
+        applyMove(map.topology.moveForward(getCell(), getOrientNumber()));
     }
 
     public void moveBackward(){
-        Vector2d oldPosition = new Vector2d(position);
-
-        if (map.isFenced)
-            setPosition(validatePositionWhenFenced(position.subtract(orient.toUnitVector())));
-        else
-            setPosition(validatePositionWhenNotFenced(position.subtract(orient.toUnitVector())));
-
-        observer.positionChanged(this, oldPosition);
-    }
-
-    public Vector2d validatePositionWhenFenced(Vector2d potentialVector){
-        int x = potentialVector.getX();
-        int y = potentialVector.getY();
-
-        if (x < 0) x = 0;
-        else if (x >= map.getWidth()) x = map.getWidth() - 1;
-
-        if (y < 0) y = 0;
-        else if (y >= map.getHeight()) y = map.getHeight() - 1;
-
-        return new Vector2d(x, y);
+        applyMove(map.topology.moveBackward(getCell(), getOrientNumber()));
     }
 
-    public Vector2d validatePositionWhenNotFenced(Vector2d potentialVector){
-        int x = potentialVector.getX();
-        int y = potentialVector.getY();
-
-        x %= map.getWidth();
-        y %= map.getHeight();
-
-        //resolving problem of (-1)%10=(-1) not 9
-        if (x<0) x+=map.getWidth();
-        if (y<0) y+=map.getHeight();
+    private void applyMove(int move){
+        int oldCell = getCell();
+        int newCell = Topology.getCell(move);
 
-        return new Vector2d(x, y);
+        setOrientNumber(Topology.getDirection(move));
+        setCell(newCell);
+        observer.positionChanged(this, oldCell, newCell);
     }
 
-    private MapDirections getRandomOrient(){
-        int randomNum = ThreadLocalRandom.current().nextInt(0, 7 + 1);
+    private MapDirections getRandomOrient(SimulationRandom random){
+        int randomNum = random.nextInt(Topology.directionsNumber);
 
         return MapDirections.getMapDirectionFromDirectionNumber(randomNum);
     }
@@ -130,33 +135,27 @@ public class Animal extends AbstractMapElement {
         return energyFromDad + energyFromMom;
     }
 
-    private void getRandomGenotype(){
-        Random random = new Random();
-        List<Integer> occurrences = Stream.generate(() -> 0).limit(8).collect(Collectors.toList());
+    private void getRandomGenotype(SimulationRandom random){
+        long occurrences = 0;
 
-        random.ints(32, 0,8)
-                .forEach(index -> occurrences.set(index, occurrences.get(index)+1));
+        for (int i = 0; i < Genome.genesNumber; i++)
+            occurrences = Genome.addOccurrence(occurrences, random.nextInt(Genome.genesTypesNumber));
 
-        IntStream.range(0, occurrences.size()).forEach(index -> {
-            List<Integer> oneGenList = Stream.generate(() -> index)
-                    .limit(occurrences.get(index))
-                    .collect(Collectors.toList());
-
-            genes.addAll(oneGenList);
-        });
+        genesLow = Genome.sortedWord(occurrences, 0);
+        genesHigh = Genome.sortedWord(occurrences, Genome.genesPerWord);
     }
 
-    private void getGenotypeFromParents(Animal dad, Animal mom){
-        boolean dadGenesOnTheLeft = new Random().nextBoolean();
+    private void getGenotypeFromParents(Animal dad, Animal mom, SimulationRandom random){
+        boolean dadGenesOnTheLeft = random.nextBoolean();
 
         int numberOfDadGens = Math.round(32 * (dad.getEnergy() / (dad.getEnergy() + mom.getEnergy())));
 
         if (dadGenesOnTheLeft) {
-            genes.addAll(dad.getGenes().subList(0,numberOfDadGens));
-            genes.addAll(mom.getGenes().subList(numberOfDadGens,32));
+            genesLow = Genome.crossLow(dad.getGenesLow(), mom.getGenesLow(), numberOfDadGens);
+            genesHigh = Genome.crossHigh(dad.getGenesHigh(), mom.getGenesHigh(), numberOfDadGens);
         }else {
-            genes.addAll(mom.getGenes().subList(0,32-numberOfDadGens));
-            genes.addAll(dad.getGenes().subList(32-numberOfDadGens,32));
+            genesLow = Genome.crossLow(mom.getGenesLow(), dad.getGenesLow(), 32-numberOfDadGens);
+            genesHigh = Genome.crossHigh(mom.getGenesHigh(), dad.getGenesHigh(), 32-numberOfDadGens);
         }
     }
 
@@ -191,14 +190,86 @@ public class Animal extends AbstractMapElement {
     }
 
     public String getDeadDateString(){
-        if (isAlive)
+        if (isAlive())
             return "is alive";
 
-        return valueOf(birthDay+lifetime);
+        return valueOf(birthDay+getLifetime());
+    }
+
+    public void attach(Population population, int slot, int id){
+        this.population = population;
+        this.slot = slot;
+        this.id = id;
+        population.setEnergy(slot, energy);
+        population.setCell(slot, cell);
+        population.setOrient(slot, orient.directionNumber);
+        population.setBirthDay(slot, birthDay);
+        population.setLifetime(slot, lifetime);
+        population.setChildrenNumber(slot, childrenNumber);
+        population.setGenes(slot, genesLow, genesHigh);
+    }
+
+    public void detach(){
+        energy = getEnergy();
+        cell = getCell();
+        orient = getOrient();
+        lifetime = getLifetime();
+        childrenNumber = getChildrenNumber();
+        isAlive = isAlive();
+        population = null;
+        slot = -1;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public Vector2d getPosition() {
+        return map.animalCells.toPosition(getCell());
+    }
+
+    @Override
+    public void setPosition(Vector2d position) {
+        setCell(map.animalCells.toCell(position));
+    }
+
+    public int getCell() {
+        if (population == null) return cell;
+        return population.getCell(slot);
+    }
+
+    public void setCell(int cell) {
+        if (population == null) this.cell = cell;
+        else population.setCell(slot, cell);
+    }
+
+    @Override
+    public float getEnergy() {
+        if (population == null) return energy;
+        return population.getEnergy(slot);
+    }
+
+    @Override
+    public void setEnergy(float energy) {
+        if (population == null) this.energy = energy;
+        else{
+            population.setEnergy(slot, energy);
+            map.animalEnergyChanged(this);
+        }
     }
 
     public void setChildrenNumber(int childrenNumber) {
-        this.childrenNumber = childrenNumber;
+        if (population == null) this.childrenNumber = childrenNumber;
+        else population.setChildrenNumber(slot, childrenNumber);
     }
 
     public void setObserved(boolean observed) {
@@ -207,25 +278,65 @@ public class Animal extends AbstractMapElement {
 
     public void setAsDead(){
         isAlive = false;
+        if (population != null) population.setAlive(slot, false);
     }
 
     public boolean isAlive() {
-        return isAlive;
+        if (population == null) return isAlive;
+        return population.isAlive(slot);
+    }
+
+    public int getGene(int index) {
+        if (population == null) return Genome.getGene(genesLow, genesHigh, index);
+        return population.getGene(slot, index);
+    }
+
+    public long getGenesLow() {
+        if (population == null) return genesLow;
+        return population.getGenesLow(slot);
+    }
+
+    public long getGenesHigh() {
+        if (population == null) return genesHigh;
+        return population.getGenesHigh(slot);
     }
 
     public List<Integer> getGenes() {
-        return genes;
+        return Genome.toList(getGenesLow(), getGenesHigh());
     }
 
     public MapDirections getOrient() {
-        return orient;
+        if (population == null) return orient;
+        return MapDirections.getMapDirectionFromDirectionNumber(population.getOrient(slot));
+    }
+
+    public void setOrient(MapDirections orient) {
+        if (population == null) this.orient = orient;
+        else population.setOrient(slot, orient.directionNumber);
+    }
+
+    public int getOrientNumber() {
+        if (population == null) return orient.directionNumber;
+        return population.getOrient(slot);
+    }
+
+    public void setOrientNumber(int orientNumber) {
+        if (population == null) this.orient = MapDirections.getMapDirectionFromDirectionNumber(orientNumber);
+        else population.setOrient(slot, orientNumber);
     }
 
     public int getLifetime() {
-        return lifetime;
+        if (population == null) return lifetime;
+        return population.getLifetime(slot);
+    }
+
+    public void setLifetime(int lifetime) {
+        if (population == null) this.lifetime = lifetime;
+        else population.setLifetime(slot, lifetime);
     }
 
     public int getChildrenNumber() {
-        return childrenNumber;
+        if (population == null) return childrenNumber;
+        return population.getChildrenNumber(slot);
     }
 }
@@ -0,0 +1,192 @@
+package darwin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class AnimalCellIndex {
+    private static final int initialCellCapacity = 2;
+    private static final int crowdedCellMinAnimals = 2;
+    private final int width;
+    private final int height;
+    private final Animal[][] cells;
+    private final int[] counts;
+    private final IndexedCellSet crowdedCells;
+
+    public AnimalCellIndex(int width, int height){
+        this.width = width;
+        this.height = height;
+        this.cells = new Animal[width * height][];
+        this.counts = new int[width * height];
+        this.crowdedCells = new IndexedCellSet(width * height);
+    }
+
+    public int toCell(int x, int y){
+        return x + y * width;
+    }
+
+    public int toCell(Vector2d position){
+        return toCell(position.getX(), position.getY());
+    }
+
+    public Vector2d toPosition(int cell){
+        return new Vector2d(cell % width, cell / width);
+    }
+
+    public void add(int cell, Animal animal){
+        Animal[] animals = cells[cell];
+
+        if (animals == null){
+            animals = new Animal[initialCellCapacity];
+            cells[cell] = animals;
+        }
+        else if (counts[cell] == animals.length){
+            animals = Arrays.copyOf(animals, animals.length * 2);
+            cells[cell] = animals;
+        }
+
+        int index = counts[cell]++;
+        float energy = animal.getEnergy();
+        while (index > 0 && animals[index - 1].getEnergy() < energy){
+            animals[index] = animals[index - 1];
+            index--;
+        }
+        animals[index] = animal;
+
+        if (counts[cell] == crowdedCellMinAnimals) crowdedCells.add(cell);
+    }
+
+    public void updateOrder(int cell, Animal animal){
+        Animal[] animals = cells[cell];
+        int count = counts[cell];
+        int index = indexOf(cell, animal);
+        if (index == -1) return;
+
+        float energy = animal.getEnergy();
+        while (index > 0 && animals[index - 1].getEnergy() < energy){
+            animals[index] = animals[index - 1];
+            index--;
+        }
+        while (index < count - 1 && animals[index + 1].getEnergy() > energy){
+            animals[index] = animals[index + 1];
+            index++;
+        }
+        animals[index] = animal;
+    }
+
+    private int indexOf(int cell, Animal animal){
+        Animal[] animals = cells[cell];
+        for (int i = 0; i < counts[cell]; i++){
+            if (animals[i] == animal) return i;
+        }
+
+        return -1;
+    }
+
+    public boolean remove(int cell, Animal animal){
+        Animal[] animals = cells[cell];
+        int count = counts[cell];
+        int index = indexOf(cell, animal);
+        if (index == -1) return false;
+
+        System.arraycopy(animals, index + 1, animals, index, count - index - 1);
+        animals[count - 1] = null;
+        counts[cell] = count - 1;
+        if (count == crowdedCellMinAnimals) crowdedCells.remove(cell);
+        return true;
+    }
+
+    public void appendUntracked(int cell, Animal animal){
+        Animal[] animals = cells[cell];
+
+        if (animals == null){
+            animals = new Animal[initialCellCapacity];
+            cells[cell] = animals;
+        }
+        else if (counts[cell] == animals.length){
+            animals = Arrays.copyOf(animals, animals.length * 2);
+            cells[cell] = animals;
+        }
+
+        animals[counts[cell]++] = animal;
+    }
+
+    public void removeUntracked(int cell, Animal animal){
+        Animal[] animals = cells[cell];
+        int count = counts[cell];
+        int index = indexOf(cell, animal);
+        if (index == -1) return;
+
+        System.arraycopy(animals, index + 1, animals, index, count - index - 1);
+        animals[count - 1] = null;
+        counts[cell] = count - 1;
+    }
+
+    public void sortByEnergy(int cell){
+        Animal[] animals = cells[cell];
+
+        for (int i = 1; i < counts[cell]; i++){
+            Animal animal = animals[i];
+            float energy = animal.getEnergy();
+            int index = i;
+            while (index > 0 && animals[index - 1].getEnergy() < energy){
+                animals[index] = animals[index - 1];
+                index--;
+            }
+            animals[index] = animal;
+        }
+    }
+
+    public void refreshCrowded(int cell){
+        if (counts[cell] >= crowdedCellMinAnimals) crowdedCells.add(cell);
+        else crowdedCells.remove(cell);
+    }
+
+    public boolean isCrowdedChanged(int cell){
+        return (counts[cell] >= crowdedCellMinAnimals) != crowdedCells.contains(cell);
+    }
+
+    public int count(int cell){
+        return counts[cell];
+    }
+
+    public Animal get(int cell, int index){
+        return cells[cell][index];
+    }
+
+    public Animal getTheStrongest(int cell){
+        return (counts[cell] > 0) ? cells[cell][0] : null;
+    }
+
+    public Animal getSecondStrongest(int cell){
+        return (counts[cell] > 1) ? cells[cell][1] : null;
+    }
+
+    public List<Animal> getAnimals(int cell){
+        List<Animal> animals = new ArrayList<>(counts[cell]);
+        for (int i = 0; i < counts[cell]; i++)
+            animals.add(cells[cell][i]);
+
+        return animals;
+    }
+
+    public IndexedCellSet getCrowdedCells(){
+        return crowdedCells;
+    }
+
+    public int getCrowdedCellMinAnimals(){
+        return crowdedCellMinAnimals;
+    }
+
+    public int size(){
+        return counts.length;
+    }
+
+    public int getWidth(){
+        return width;
+    }
+
+    public int getHeight(){
+        return height;
+    }
+}
@@ -1,9 +1,9 @@
 package darwin;
 
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Application;
 import javafx.application.Platform;
-import javafx.geometry.HPos;
-import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
@@ -14,9 +14,9 @@ import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.scene.shape.Rectangle;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
 import static java.lang.String.valueOf;
 
 public class App extends Application implements IAppObserver {
@@ -27,13 +27,14 @@ public class App extends Application implements IAppObserver {
     private Scene menuScene;
     private DoublePlot snakeDoublePlot;
     private DoublePlot wallDoublePlot;
-    private Thread engineSnakeThread;
-    private Thread engineWallThread;
-    private final GridPane snakeGrid = new GridPane();
-    private final GridPane wallGrid = new GridPane();
+    private final TickScheduler scheduler = new TickScheduler(2);
+    private ScheduledSimulation snakeSimulation;
+    private ScheduledSimulation wallSimulation;
+    private MapRenderer snakeRenderer;
+    private MapRenderer wallRenderer;
     private final VBox wallAnimalObservedStats = new VBox(5);
     private final VBox snakeAnimalObservedStats = new VBox(5);
-    private final Map<String, String> defaultMenuValues = createDefaultMenuValues();
+    private final Map<String, String> defaultMenuValues = OptionParser.createDefaultMenuValues();
     private final Map<String, TextField> menuTextFields = new HashMap<>();
     private final Label snakeGenotype = new Label();
     private final Label wallGenotype = new Label();
@@ -43,11 +44,22 @@ public class App extends Application implements IAppObserver {
     private final Map<String, Plot> snakePlots = new HashMap<>();
     private final CSVHandler snakeCSVHandler = new CSVHandler("snake_map_stats");
     private final CSVHandler wallCSVHandler = new CSVHandler("wall_map_stats");
-    private double circleR = 5;
+    private FrameHandoff snakeHandoff;
+    private FrameHandoff wallHandoff;
+    private MapFrame snakeFrame;
+    private MapFrame wallFrame;
     private double gridCellHeight = 10;
     private double gridCellWidth = 10;
+    private String replayPrefix = null;
+    private final Label snakeMetricsOverlay = createMetricsOverlay();
+    private final Label wallMetricsOverlay = createMetricsOverlay();
+    private final Timeline metricsTimeline = new Timeline(new KeyFrame(Duration.millis(500),
+            tick -> updateMetricsOverlays()));
+    private MetricsServer metricsServer = null;
 
     public void start(Stage primaryStage) {
+        replayPrefix = getParameters().getNamed().get("replay");
+        startMetricsServer(getParameters().getNamed().get("metricsPort"));
         Scene menuScene = new Scene(createVBoxMenu(primaryStage),400,600);
         this.menuScene = menuScene;
 
@@ -63,12 +75,22 @@ public class App extends Application implements IAppObserver {
         primaryStage.show();
     }
 
+    private void startMetricsServer(String port){
+        if (port == null) return;
+
+        try {
+            metricsServer = new MetricsServer(Integer.parseInt(port));
+        } catch (IOException | NumberFormatException e) {
+            e.printStackTrace();
+        }
+    }
+
     private void addListenersToHeightAndWidth(Stage primaryStage) {
         primaryStage.widthProperty().addListener((obs, oldVal, newVal) -> {
             if (snakeEngine != null && !snakeEngine.ifRunning){
                 int width = snakeEngine.getMap().getWidth();
                 gridCellWidth = ((double) newVal / 3) / width;
-                updateCircleRAndGrids();
+                updateCellSizes();
             }
         });
 
@@ -76,15 +98,14 @@ public class App extends Application implements IAppObserver {
             if (snakeEngine != null){
                 int height = snakeEngine.getMap().getHeight();
                 gridCellHeight = ((double) newVal / 3) / height;
-                updateCircleRAndGrids();
+                updateCellSizes();
             }
         });
     }
 
-    private void updateCircleRAndGrids() {
-        circleR = Math.min(gridCellHeight/2, gridCellWidth/2);
-        updateGuiForObserving(snakeGrid, snakeEngine, false);
-        updateGuiForObserving(wallGrid, wallEngine, false);
+    private void updateCellSizes() {
+        snakeRenderer.setCellSize(gridCellWidth, gridCellHeight);
+        wallRenderer.setCellSize(gridCellWidth, gridCellHeight);
     }
 
     public void addPlots(Map<String, Plot> givenMap){
@@ -130,12 +151,8 @@ public class App extends Application implements IAppObserver {
                 e.printStackTrace();
             }
 
-            clearGrid(wallGrid);
-            clearGrid(snakeGrid);
             Scene simulationScene = createSimulationScene(menuArgs, primaryStage);
             primaryStage.setScene(simulationScene);
-            engineSnakeThread.start();
-            engineWallThread.start();
         });
 
         return createSimulationButton;
@@ -143,11 +160,19 @@ public class App extends Application implements IAppObserver {
 
     public Scene createSimulationScene(Map<String, Number> menuArgs, Stage primaryStage){
         prepareSimulation(menuArgs);
-        prepareGrid(snakeGrid, snakeEngine);
-        prepareGrid(wallGrid, wallEngine);
-
-        engineSnakeThread = new Thread(snakeEngine);
-        engineWallThread = new Thread(wallEngine);
+        snakeHandoff = new FrameHandoff(snakeEngine.getMap().getWidth() * snakeEngine.getMap().getHeight());
+        wallHandoff = new FrameHandoff(wallEngine.getMap().getWidth() * wallEngine.getMap().getHeight());
+        snakeFrame = MapFrame.capture(snakeEngine.getMap(), snakeEngine.getDayStats());
+        wallFrame = MapFrame.capture(wallEngine.getMap(), wallEngine.getDayStats());
+        snakeRenderer = prepareRenderer(snakeEngine, snakeFrame);
+        wallRenderer = prepareRenderer(wallEngine, wallFrame);
+
+        snakeSimulation = scheduleSimulation(snakeEngine);
+        wallSimulation = scheduleSimulation(wallEngine);
+        registerMetrics(snakeEngine, "snake_map");
+        registerMetrics(wallEngine, "wall_map");
+        metricsTimeline.setCycleCount(Timeline.INDEFINITE);
+        metricsTimeline.play();
 
         VBox snakeStatsVBox = getSnakeStatsVBox();
         VBox wallStatsVBox = getWallStatsVBox();
@@ -157,42 +182,78 @@ public class App extends Application implements IAppObserver {
                 getHBoxWithExitSimulationButton(primaryStage));
         simulationsBox.setAlignment(Pos.CENTER);
         sceneBox.setAlignment(Pos.CENTER);
-        snakeGrid.setAlignment(Pos.CENTER);
-        wallGrid.setAlignment(Pos.CENTER);
         return new Scene(sceneBox, 1300, 900);
     }
 
+    private void registerMetrics(SimulationEngine engine, String name){
+        engine.getMetrics().register(name);
+        if (metricsServer != null) metricsServer.add(engine.getMetrics());
+    }
+
+    private void unregisterMetrics(SimulationEngine engine){
+        engine.getMetrics().unregister();
+        if (metricsServer != null) metricsServer.remove(engine.getMetrics());
+    }
+
+    private Label createMetricsOverlay(){
+        Label label = new Label();
+        label.setStyle("-fx-font-family: monospace; -fx-text-fill: white; -fx-background-color: rgba(0, 0, 0, 0.6);"
+                + " -fx-padding: 4;");
+        label.setMouseTransparent(true);
+        label.setVisible(false);
+        StackPane.setAlignment(label, Pos.TOP_LEFT);
+        return label;
+    }
+
+    private void updateMetricsOverlays(){
+        if (snakeMetricsOverlay.isVisible()) snakeMetricsOverlay.setText(snakeEngine.getMetrics().getSummary());
+        if (wallMetricsOverlay.isVisible()) wallMetricsOverlay.setText(wallEngine.getMetrics().getSummary());
+    }
+
+    private ScheduledSimulation scheduleSimulation(SimulationEngine engine){
+        ScheduledSimulation simulation = scheduler.schedule(engine);
+        simulation.setFixedRate(engine.getMoveDelay());
+        return simulation;
+    }
+
     private VBox getWallStatsVBox() {
-        return new VBox(10, prepareMapWithButtonsBox(wallGrid, "WALL MAP",
-                prepareButtonsBox(wallEngine, wallCSVHandler, wallDoublePlot, wallPlots, wallGrid)),
+        return new VBox(10, prepareMapWithButtonsBox(wallRenderer, wallMetricsOverlay, "WALL MAP",
+                prepareButtonsBox(wallSimulation, wallCSVHandler, wallDoublePlot, wallPlots, wallRenderer,
+                        wallMetricsOverlay)),
                 wallAnimalObservedStats,
-                prepareStatsVBox(wallGenotype, wallMagicBorn, wallEngine.getMap(), wallDoublePlot, wallPlots));
+                prepareStatsVBox(wallGenotype, wallMagicBorn, wallFrame, wallDoublePlot, wallPlots));
     }
 
     private VBox getSnakeStatsVBox() {
-        return new VBox(10, prepareMapWithButtonsBox(snakeGrid, "SNAKE MAP",
-                prepareButtonsBox(snakeEngine, snakeCSVHandler, snakeDoublePlot, snakePlots, snakeGrid)),
+        return new VBox(10, prepareMapWithButtonsBox(snakeRenderer, snakeMetricsOverlay, "SNAKE MAP",
+                prepareButtonsBox(snakeSimulation, snakeCSVHandler, snakeDoublePlot, snakePlots, snakeRenderer,
+                        snakeMetricsOverlay)),
                 snakeAnimalObservedStats,
-                prepareStatsVBox(snakeGenotype, snakeMagicBorn, snakeEngine.getMap(), snakeDoublePlot, snakePlots));
+                prepareStatsVBox(snakeGenotype, snakeMagicBorn, snakeFrame, snakeDoublePlot, snakePlots));
     }
 
     public HBox getHBoxWithExitSimulationButton(Stage primaryStage){
         Button exitButton = new Button("Exit to menu");
         exitButton.setOnAction(click -> {
-            wallEngine.finished = true;
-            snakeEngine.finished = true;
+            wallSimulation.cancel();
+            snakeSimulation.cancel();
+            metricsTimeline.stop();
+            unregisterMetrics(snakeEngine);
+            unregisterMetrics(wallEngine);
+            snakeMetricsOverlay.setVisible(false);
+            wallMetricsOverlay.setVisible(false);
             primaryStage.setScene(menuScene);
 
-            if (snakeEngine.getMap().observedAnimal != null){
+            if (snakeSimulation.isIdle() && snakeEngine.getMap().observedAnimal != null){
                 snakeEngine.getMap().observedAnimal.stopObserving();
                 snakeEngine.getMap().observedAnimal = null;
-                updateGuiForObserving(snakeGrid, snakeEngine, false);
+                updateGuiForObserving(snakeRenderer, snakeEngine, false);
             }
 
-            if (wallEngine.getMap().observedAnimal != null){
+            if (wallSimulation.isIdle() && wallEngine.getMap().observedAnimal != null){
                 wallEngine.getMap().observedAnimal.stopObserving();
                 wallEngine.getMap().observedAnimal = null;
-                updateGuiForObserving(wallGrid, wallEngine, false);
+                updateGuiForObserving(wallRenderer, wallEngine, false);
             }
         });
 
@@ -201,10 +262,19 @@ public class App extends Application implements IAppObserver {
         return hbox;
     }
 
-    private void updateGuiForObserving(GridPane grid, SimulationEngine engine, boolean ifDominant) {
-        clearGrid(grid);
-        prepareGrid(grid, engine, ifDominant);
-        prepareAnimalObservedStats(engine);
+    private void updateGuiForObserving(MapRenderer renderer, SimulationEngine engine, boolean ifDominant) {
+        MapFrame frame = captureStoppedFrame(engine);
+        renderer.draw(frame, ifDominant);
+        prepareAnimalObservedStats(engine, frame);
+    }
+
+    private MapFrame captureStoppedFrame(SimulationEngine engine){
+        boolean ifSnake = engine == snakeEngine;
+        MapFrame frame = MapFrame.capture(engine.getMap(), (ifSnake ? snakeFrame : wallFrame).getStats());
+
+        if (ifSnake) snakeFrame = frame;
+        else wallFrame = frame;
+        return frame;
     }
 
     public HBox createMapLegendHBox(){
@@ -241,18 +311,37 @@ public class App extends Application implements IAppObserver {
         startEnergy = (int) menuArgs.get("Animal start energy");
         int delay = (int) menuArgs.get("Refresh time (in ms)");
 
-        snakeEngine = new SimulationEngine(width, height, jungleRatio, startAnimalsNumber,
-                startEnergy, moveEnergy, grassEnergy, delay, ifMagicBorn,false, this);
-        wallEngine = new SimulationEngine(width, height, jungleRatio, startAnimalsNumber,
-                startEnergy, moveEnergy, grassEnergy, delay, ifMagicBorn, true, this);
+        snakeEngine = (replayPrefix != null) ? openReplay(replayPrefix + "snake_map_events.dwe") : null;
+        wallEngine = (replayPrefix != null) ? openReplay(replayPrefix + "wall_map_events.dwe") : null;
 
-        snakeDoublePlot = new DoublePlot("Animals","Grasses", startAnimalsNumber, 0);
-        wallDoublePlot = new DoublePlot("Animals","Grasses", startAnimalsNumber, 0);
+        if (snakeEngine == null || wallEngine == null){
+            snakeEngine = new SimulationEngine(width, height, jungleRatio, startAnimalsNumber,
+                    startEnergy, moveEnergy, grassEnergy, delay, ifMagicBorn,false, this);
+            wallEngine = new SimulationEngine(width, height, jungleRatio, startAnimalsNumber,
+                    startEnergy, moveEnergy, grassEnergy, delay, ifMagicBorn, true, this);
+        }
+        else {
+            ifMagicBorn = snakeEngine.isMagicBorn();
+            startEnergy = snakeEngine.getStartEnergy();
+        }
+
+        snakeDoublePlot = new DoublePlot("Animals","Grasses", snakeEngine.getDayStats().getAnimalsNumber(), 0);
+        wallDoublePlot = new DoublePlot("Animals","Grasses", wallEngine.getDayStats().getAnimalsNumber(), 0);
         
         addPlots(wallPlots);
         addPlots(snakePlots);
     }
 
+    private SimulationEngine openReplay(String fileName){
+        try {
+            EventLogReader replay = new EventLogReader(fileName);
+            return replay.createReplay(replay.getFirstDay(), this);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
     public VBox createVBoxWithLabelsAndTextFields(String primaryLabel, String[] textFieldNames){
         Label label = getLabelWithBoldText(primaryLabel);
         VBox vbox = new VBox(10, label, createLabelsVBoxWithTextFields(textFieldNames));
@@ -278,27 +367,12 @@ public class App extends Application implements IAppObserver {
         return vBox;
     }
 
-    public Map<String,String> createDefaultMenuValues(){
-        Map<String,String> defaultMenuValues = new HashMap<>();
-        defaultMenuValues.put("Map height", "10");
-        defaultMenuValues.put("Map width", "10");
-        defaultMenuValues.put("Jungle ratio", "0.4");
-        defaultMenuValues.put("Grass energy", "30");
-        defaultMenuValues.put("Animal start energy", "200");
-        defaultMenuValues.put("Animal move energy", "5");
-        defaultMenuValues.put("Use magic born [yes/no]", "no");
-        defaultMenuValues.put("Start animals number", "15");
-        defaultMenuValues.put("Refresh time (in ms)", "300");
-
-        return defaultMenuValues;
-    }
-
-    public VBox prepareStatsVBox(Label givenGenotypeLabel, Label givenMagicBornLabel, AbstractMap map,
+    public VBox prepareStatsVBox(Label givenGenotypeLabel, Label givenMagicBornLabel, MapFrame frame,
                                  DoublePlot doublePlot, Map<String, Plot> plots){
         HBox title = new HBox(getLabelWithBoldText("GENERAL STATS"));
         title.setAlignment(Pos.CENTER);
 
-        givenGenotypeLabel.setText("Dominant genotype: " + map.getTheMostFrequentGenotype().toString());
+        givenGenotypeLabel.setText("Dominant genotype: " + frame.getDominantGenotype().toString());
 
         HBox magicBornAndGenotypeBox;
         if (ifMagicBorn)
@@ -328,36 +402,54 @@ public class App extends Application implements IAppObserver {
         return hbox;
     }
 
-    public HBox prepareMapWithButtonsBox(GridPane mapGrid, String nameForGrid, VBox buttonsBox){
+    public HBox prepareMapWithButtonsBox(MapRenderer renderer, Label metricsOverlay, String nameForGrid,
+                                         VBox buttonsBox){
         Label label = getLabelWithBoldText(nameForGrid);
-        VBox gridWithName = new VBox(label, mapGrid);
+        VBox gridWithName = new VBox(label, new StackPane(renderer.getCanvas(), metricsOverlay));
         gridWithName.setAlignment(Pos.CENTER);
         HBox box = new HBox(10, gridWithName, buttonsBox);
         box.setAlignment(Pos.CENTER);
         return box;
     }
 
-    public VBox prepareButtonsBox(SimulationEngine givenSimulation, CSVHandler handler, DoublePlot doublePlot,
-                                    Map<String, Plot> plots, GridPane grid){
-        VBox box = new VBox(20, prepareStartButton(givenSimulation),
-                prepareStopButton(givenSimulation),
-                prepareToCSVButton(givenSimulation, handler, doublePlot, plots),
-                prepareShowAnimalsWithGenotypeButton(givenSimulation, grid),
-                prepareStopObservingButton(givenSimulation, grid));
+    public VBox prepareButtonsBox(ScheduledSimulation scheduledSimulation, CSVHandler handler, DoublePlot doublePlot,
+                                    Map<String, Plot> plots, MapRenderer renderer, Label metricsOverlay){
+        SimulationEngine givenSimulation = scheduledSimulation.getEngine();
+        VBox box = new VBox(20, prepareStartButton(scheduledSimulation),
+                prepareStopButton(scheduledSimulation),
+                prepareNextDayButton(scheduledSimulation),
+                prepareRefreshTimeField(scheduledSimulation),
+                prepareToCSVButton(scheduledSimulation, handler, doublePlot, plots),
+                prepareShowAnimalsWithGenotypeButton(scheduledSimulation, renderer),
+                prepareStopObservingButton(scheduledSimulation, renderer),
+                prepareShowMetricsButton(givenSimulation, metricsOverlay));
 
         box.setAlignment(Pos.CENTER);
         return box;
     }
 
-    public Button prepareStopObservingButton(SimulationEngine givenSimulation, GridPane grid){
+    public Button prepareShowMetricsButton(SimulationEngine givenSimulation, Label metricsOverlay){
+        Button button = new Button("Show metrics");
+        button.setOnAction(click -> {
+            metricsOverlay.setVisible(!metricsOverlay.isVisible());
+            metricsOverlay.setText(givenSimulation.getMetrics().getSummary());
+            button.setText(metricsOverlay.isVisible() ? "Hide metrics" : "Show metrics");
+        });
+
+        button.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        return button;
+    }
+
+    public Button prepareStopObservingButton(ScheduledSimulation scheduledSimulation, MapRenderer renderer){
+        SimulationEngine givenSimulation = scheduledSimulation.getEngine();
         Button button = new Button("Stop Observing");
         button.setOnAction(click -> {
-            if (!givenSimulation.ifRunning){
+            if (scheduledSimulation.isIdle()){
                 if(givenSimulation.getMap().observedAnimal != null){
                     givenSimulation.getMap().observedAnimal.stopObserving();
                     givenSimulation.getMap().observedAnimal = null;
                 }
-                updateGuiForObserving(grid, givenSimulation, false);
+                updateGuiForObserving(renderer, givenSimulation, false);
             }
         });
 
@@ -365,13 +457,14 @@ public class App extends Application implements IAppObserver {
         return button;
     }
 
-    public Button prepareShowAnimalsWithGenotypeButton(SimulationEngine givenSimulation, GridPane grid){
+    public Button prepareShowAnimalsWithGenotypeButton(ScheduledSimulation scheduledSimulation,
+                                                       MapRenderer renderer){
+        SimulationEngine givenSimulation = scheduledSimulation.getEngine();
         Button button = new Button("Show dominant genotype animals");
 
         button.setOnAction(click -> {
-            if (!givenSimulation.ifRunning){
-                clearGrid(grid);
-                prepareGrid(grid, givenSimulation, true);
+            if (scheduledSimulation.isIdle()){
+                renderer.draw(captureStoppedFrame(givenSimulation), true);
             }
         });
 
@@ -379,16 +472,15 @@ public class App extends Application implements IAppObserver {
         return button;
     }
 
-    public Button prepareToCSVButton(SimulationEngine givenSimulation, CSVHandler handler, DoublePlot doublePlot,
-                                     Map<String, Plot> plots){
+    public Button prepareToCSVButton(ScheduledSimulation scheduledSimulation, CSVHandler handler,
+                                     DoublePlot doublePlot, Map<String, Plot> plots){
         Button button = new Button("Save to file");
         button.setOnAction(click -> {
-            if (!givenSimulation.ifRunning){
-                handler.updateData("Animals", doublePlot.getSeries1AllValues(), doublePlot.getSeries1Average());
-                handler.updateData("Grass", doublePlot.getSeries2AllValues(), doublePlot.getSeries2Average());
+            if (scheduledSimulation.isIdle()){
+                handler.updateData("Animals", doublePlot.getSeries1AllValues());
+                handler.updateData("Grass", doublePlot.getSeries2AllValues());
 
-                plots.forEach((plotName, plot) ->
-                        handler.updateData(plotName, plot.getAllValues(), plot.getSeriesAverage()));
+                plots.forEach((plotName, plot) -> handler.updateData(plotName, plot.getAllValues()));
 
                 try {
                     handler.createCSV();
@@ -402,114 +494,102 @@ public class App extends Application implements IAppObserver {
         return button;
     }
 
-    public Button prepareStopButton(SimulationEngine givenSimulation){
+    public Button prepareStopButton(ScheduledSimulation givenSimulation){
         Button button = new Button("Stop Simulation");
-        button.setOnAction(click -> givenSimulation.setIfRunning(false));
+        button.setOnAction(click -> givenSimulation.setPaused(true));
 
         button.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
         return button;
     }
 
-    public Button prepareStartButton(SimulationEngine givenSimulation){
-        Button button = new Button("Start Simulation");
-        button.setOnAction(click -> givenSimulation.setIfRunning(true));
+    public Button prepareNextDayButton(ScheduledSimulation givenSimulation){
+        Button button = new Button("Next Day");
+        button.setOnAction(click -> givenSimulation.step());
 
         button.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
         return button;
     }
 
-    public void show(AbstractMap map, int day, int animalsNumber, int grassNumber, float averageEnergy,
-                     float averageLifetime, float averageChildrenNumber, int magicBornCounter) {
-        GridPane grid = wallGrid;
-        DoublePlot doublePlot = wallDoublePlot;
-        Map<String, Plot> plots = wallPlots;
-        Label magicBorn = wallMagicBorn;
-        Label genotype = wallGenotype;
-        SimulationEngine engine = wallEngine;
-
-        if (map instanceof SnakeMap) {
-            grid = snakeGrid;
-            doublePlot = snakeDoublePlot;
-            plots = snakePlots;
-            magicBorn = snakeMagicBorn;
-            genotype = snakeGenotype;
-            engine = snakeEngine;
-        }
-
-        updateGui(map, day, animalsNumber, grassNumber, averageEnergy, averageLifetime, averageChildrenNumber,
-                magicBornCounter, grid, doublePlot, plots, magicBorn, genotype, engine);
-    }
-
-    private void updateGui(AbstractMap map, int day, int animalsNumber, int grassNumber, float averageEnergy,
-                           float averageLifetime, float averageChildrenNumber, int magicBornCounter, GridPane grid,
-                           DoublePlot doublePlot, Map<String, Plot> plots, Label magicBorn, Label genotype,
-                           SimulationEngine engine) {
-        Platform.runLater(() -> {
-            clearGrid(grid);
-            prepareGrid(grid, engine);
-            doublePlot.updatePlot(day, animalsNumber, grassNumber);
-            plots.get("Average energy").updatePlot(day, averageEnergy);
-            plots.get("Average lifetime").updatePlot(day, averageLifetime);
-            plots.get("Average children number").updatePlot(day, averageChildrenNumber);
-            genotype.setText("Dominant genotype: " + map.getTheMostFrequentGenotype().toString());
-            if (ifMagicBorn) magicBorn.setText("Magic born " + magicBornCounter + "/3");
-            prepareAnimalObservedStats(engine);
+    public TextField prepareRefreshTimeField(ScheduledSimulation givenSimulation){
+        TextField textField = new TextField(valueOf(givenSimulation.getEngine().getMoveDelay()));
+        textField.setPromptText("Refresh time (in ms)");
+        textField.setAlignment(Pos.CENTER);
+        textField.setOnAction(enter -> {
+            try {
+                givenSimulation.setFixedRate(OptionParser.parseIntegerValues(textField.getText()).intValue());
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
         });
+
+        return textField;
     }
 
-    public void clearGrid(GridPane grid){
-        grid.getChildren().clear();
-        grid.getRowConstraints().clear();
-        grid.getColumnConstraints().clear();
+    public Button prepareStartButton(ScheduledSimulation givenSimulation){
+        Button button = new Button("Start Simulation");
+        button.setOnAction(click -> givenSimulation.setPaused(false));
+
+        button.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        return button;
     }
 
-    public void prepareGrid(GridPane grid, SimulationEngine engine, boolean ifDominant) {
-        AbstractMap map = engine.getMap();
-        int height = map.getHeight();
-        int width = map.getWidth();
+    public void show(AbstractMap map, int day, int animalsNumber, int grassNumber, float averageEnergy,
+                     float averageLifetime, float averageChildrenNumber, int magicBornCounter) {
+        DayStats stats = new DayStats(day, animalsNumber, grassNumber, averageEnergy, averageLifetime,
+                averageChildrenNumber, magicBornCounter);
 
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                updateOneCell(grid, engine, ifDominant, map, y, x);
-            }
-        }
-        updateGridConstraints(grid, height, width);
+        if (map == snakeEngine.getMap() && snakeHandoff.publish(map, stats))
+            Platform.runLater(() -> renderPendingFrames(true));
+        else if (map == wallEngine.getMap() && wallHandoff.publish(map, stats))
+            Platform.runLater(() -> renderPendingFrames(false));
     }
 
-    private void updateGridConstraints(GridPane grid, int height, int width) {
-        for (int y = 0; y < height; y++) {
-            grid.getRowConstraints().add(new RowConstraints(gridCellHeight));
+    private void renderPendingFrames(boolean ifSnake){
+        if (ifSnake){
+            snakeFrame = renderPendingFrame(snakeHandoff, snakeFrame, snakeRenderer, snakeDoublePlot,
+                    snakePlots, snakeMagicBorn, snakeGenotype, snakeEngine);
         }
-        for (int x = 0; x < width; x++) {
-            grid.getColumnConstraints().add(new ColumnConstraints(gridCellWidth));
+        else {
+            wallFrame = renderPendingFrame(wallHandoff, wallFrame, wallRenderer, wallDoublePlot,
+                    wallPlots, wallMagicBorn, wallGenotype, wallEngine);
         }
     }
 
-    private void updateOneCell(GridPane grid, SimulationEngine engine, boolean ifDominant, AbstractMap map, int y, int x){
-        Vector2d currPos = new Vector2d(x, y);
-        Circle circle = getAnimalCircle(currPos, engine, ifDominant, grid);
-        Color backgroundColor = Color.LIGHTGREEN;
+    private MapFrame renderPendingFrame(FrameHandoff handoff, MapFrame lastFrame, MapRenderer renderer,
+                                        DoublePlot doublePlot, Map<String, Plot> plots, Label magicBorn,
+                                        Label genotype, SimulationEngine engine) {
+        List<DayStats> pendingStats = new ArrayList<>();
+        IntArrayList changedCells = new IntArrayList();
+        MapFrame frame = handoff.take(pendingStats, changedCells);
+        if (frame == null) return lastFrame;
 
-        if (map.isGrassOnPosition(new Vector2d(x, y))){
-            backgroundColor = Color.LIME;
+        for (DayStats stats: pendingStats){
+            doublePlot.updatePlot(stats.getDay(), stats.getAnimalsNumber(), stats.getGrassNumber());
+            plots.get("Average energy").updatePlot(stats.getDay(), stats.getAverageEnergy());
+            plots.get("Average lifetime").updatePlot(stats.getDay(), stats.getAverageLifetime());
+            plots.get("Average children number").updatePlot(stats.getDay(), stats.getAverageChildrenNumber());
         }
-        else if (map.isPositionInJungle(currPos)){
-            backgroundColor = Color.GREEN;
-        }
-
-        HBox hbox = (circle == null) ? new HBox(): new HBox(circle);
-        hbox.setAlignment(Pos.CENTER);
 
-        hbox.setBackground(new Background(new BackgroundFill(backgroundColor, CornerRadii.EMPTY, Insets.EMPTY)));
-        grid.add(hbox, x, y, 1, 1);
-        GridPane.setHalignment(hbox, HPos.CENTER);
+        renderer.drawChanges(frame, changedCells);
+        genotype.setText("Dominant genotype: " + frame.getDominantGenotype().toString());
+        if (ifMagicBorn) magicBorn.setText("Magic born " + frame.getStats().getMagicBornCounter() + "/3");
+        prepareAnimalObservedStats(engine, frame);
+        return frame;
     }
 
-    public void prepareGrid(GridPane grid, SimulationEngine engine){
-        prepareGrid(grid, engine,false);
+    private MapRenderer prepareRenderer(SimulationEngine engine, MapFrame frame){
+        MapRenderer renderer = new MapRenderer(startEnergy);
+        renderer.setCellSize(gridCellWidth, gridCellHeight);
+        renderer.draw(frame, false);
+        renderer.getCanvas().setOnMouseClicked(e -> {
+            Vector2d position = renderer.getAnimalPositionAt(e.getX(), e.getY());
+            if (position != null) observeClickedAnimal(engine, renderer, position);
+        });
+
+        return renderer;
     }
 
-    public void prepareAnimalObservedStats(SimulationEngine engine){
+    public void prepareAnimalObservedStats(SimulationEngine engine, MapFrame frame){
         AbstractMap map = engine.getMap();
 
         VBox statsBox;
@@ -517,27 +597,24 @@ public class App extends Application implements IAppObserver {
         else statsBox = snakeAnimalObservedStats;
         statsBox.getChildren().clear();
 
-        if (map.observedAnimal == null) return;
+        if (!frame.hasObservedAnimal()) return;
 
         HBox statsLabelTitle = new HBox(10, getLabelWithBoldText("OBSERVING STATS"));
         statsLabelTitle.setAlignment(Pos.CENTER);
 
-        HBox genotype = new HBox(10, getLabelWithBoldText("Genotype"), new Label(map.observedAnimal.getGenes().toString()));
+        HBox genotype = new HBox(10, getLabelWithBoldText("Genotype"), new Label(frame.getObservedGenotype()));
         genotype.setAlignment(Pos.CENTER);
 
-        HBox numberStatsBox = getNumObservedStatsHBox(map);
+        HBox numberStatsBox = getNumObservedStatsHBox(frame);
 
         statsBox.getChildren().addAll(statsLabelTitle, genotype, numberStatsBox);
         statsBox.setAlignment(Pos.CENTER);
     }
 
-    private HBox getNumObservedStatsHBox(AbstractMap map) {
-        HBox children = new HBox(10, getLabelWithBoldText("Children"),
-                new Label(valueOf(map.observedAnimal.getChildrenNumberAfterObservingStarts())));
-        HBox descendants = new HBox(10, getLabelWithBoldText("Descendants"),
-                new Label(valueOf(map.observedAnimal.getAllDescendantsNumber())));
-        HBox deadDate = new HBox(10, getLabelWithBoldText("Dead date"),
-                new Label(map.observedAnimal.getDeadDateString()));
+    private HBox getNumObservedStatsHBox(MapFrame frame) {
+        HBox children = new HBox(10, getLabelWithBoldText("Children"), new Label(frame.getObservedChildren()));
+        HBox descendants = new HBox(10, getLabelWithBoldText("Descendants"), new Label(frame.getObservedDescendants()));
+        HBox deadDate = new HBox(10, getLabelWithBoldText("Dead date"), new Label(frame.getObservedDeadDate()));
 
         HBox numberStatsBox = new HBox(10, children, descendants, deadDate);
         numberStatsBox.setAlignment(Pos.CENTER);
@@ -551,66 +628,34 @@ public class App extends Application implements IAppObserver {
         return label;
     }
 
-    public Circle getAnimalCircle(Vector2d position, SimulationEngine engine, boolean ifDominant, GridPane grid) {
-        AbstractMap map = engine.getMap();
-        Circle circle = getObservedCircle(map, position);
-        Animal animal = (circle != null) ? map.observedAnimal : null;
-
-        if (ifDominant && circle == null){
-            ArrayList<Animal> animalsWithDominant = getAnimalsWithDominantGenotypeList(position, map);
-            if (!animalsWithDominant.isEmpty()){
-                circle = new Circle(circleR);
-                animal = animalsWithDominant.get(animalsWithDominant.size()-1);
-                circle.setFill(Color.RED);
-            }
-        }
+    private void observeClickedAnimal(SimulationEngine engine, MapRenderer renderer, Vector2d position) {
+        ScheduledSimulation scheduledSimulation = (engine == snakeEngine) ? snakeSimulation : wallSimulation;
+        if (!scheduledSimulation.isIdle()) return;
 
-        if (circle == null){
-            List<Animal> positionAnimals = map.getSortedListOfAnimalsOnPositionDesc(position);
-            circle = (positionAnimals.size() != 0) ? new Circle(circleR) : null;
-            if (circle != null) {
-                animal = positionAnimals.get(0);
-                circle.setFill(animal.toColor(startEnergy));
-            }
+        boolean ifDominant = renderer.isShowingDominant();
+        Animal animal = getClickedAnimal(engine.getMap(), position, ifDominant);
+        if (engine.getMap().observedAnimal != null){
+            engine.getMap().observedAnimal.stopObserving();
         }
 
-        addClickEventToCircle(engine, ifDominant, grid, circle, animal);
-        return circle;
+        if (engine.getMap().observedAnimal == animal || animal == null){
+            engine.getMap().observedAnimal = null;
+        } else{
+            engine.getMap().observedAnimal = animal;
+            engine.getMap().observedAnimal.setObserved(true);
+        }
+        updateGuiForObserving(renderer, engine, ifDominant);
     }
 
-    private ArrayList<Animal> getAnimalsWithDominantGenotypeList(Vector2d position, AbstractMap map) {
-        return map.getAnimalsFromGivenPosition(position).stream()
-                .filter(a -> a.getGenes().equals(map.getTheMostFrequentGenotype()))
-                .sorted((a1, a2) -> Float.compare(a1.getEnergy(), a2.getEnergy()))
-                .collect(Collectors.toCollection(ArrayList::new));
-    }
+    public Animal getClickedAnimal(AbstractMap map, Vector2d position, boolean ifDominant){
+        Animal observedAnimal = map.observedAnimal;
+        if (observedAnimal != null && observedAnimal.isAlive() && observedAnimal.getPosition().equals(position))
+            return observedAnimal;
 
-    private void addClickEventToCircle(SimulationEngine engine, boolean ifDominant, GridPane grid, Circle circle,
-                                       Animal animal) {
-        if (circle == null) return;
-        circle.setOnMouseClicked(e -> {
-            if (!engine.ifRunning){
-                if (engine.getMap().observedAnimal != null){
-                    engine.getMap().observedAnimal.stopObserving();
-                }
+        Animal animalWithDominant = ifDominant ? map.getTheStrongestAnimalWithDominantGenotype(position) : null;
+        if (animalWithDominant != null)
+            return animalWithDominant;
 
-                if (engine.getMap().observedAnimal == animal){
-                    engine.getMap().observedAnimal = null;
-                } else{
-                    engine.getMap().observedAnimal = animal;
-                    engine.getMap().observedAnimal.setObserved(true);
-                }
-                updateGuiForObserving(grid, engine, ifDominant);
-            }
-        });
-    }
-
-    public Circle getObservedCircle(AbstractMap map, Vector2d position){
-        Circle circle = null;
-        if (map.observedAnimal != null && map.observedAnimal.isAlive() && map.observedAnimal.getPosition().equals(position)){
-            circle = new Circle(circleR);
-            circle.setFill(Color.BLUEVIOLET);
-        }
-        return circle;
+        return map.getTheStrongestAnimal(position);
     }
 }
@@ -0,0 +1,36 @@
+package darwin;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("darwin.Births")
+@Label("Animal Births")
+@Description("Animals born on one simulation day")
+@Category({"Darwin World", "Population"})
+@Enabled(false)
+@StackTrace(false)
+public class BirthsEvent extends Event {
+    @Label("Day")
+    int day;
+
+    @Label("Births")
+    int birthsNumber;
+
+    @Label("Animals")
+    int animalsNumber;
+
+    public static void commit(int day, int birthsNumber, int animalsNumber){
+        BirthsEvent event = new BirthsEvent();
+        if (!event.shouldCommit()) return;
+
+        event.day = day;
+        event.birthsNumber = birthsNumber;
+        event.animalsNumber = animalsNumber;
+        event.commit();
+    }
+}
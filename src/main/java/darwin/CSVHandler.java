@@ -1,59 +1,35 @@
 package darwin;
 
-import java.io.File;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 public class CSVHandler {
     String fileName;
-    private final Map<String, List<Number>> allData = new HashMap<>();
-    private final Map<String, Number> averages = new HashMap<>();
+    private final Map<String, List<Number>> allData = new LinkedHashMap<>();
 
     public CSVHandler(String fileName){
         this.fileName = fileName + ".csv";
     }
 
-    public void updateData(String dataName, List<Number> data, Number average){
+    public void updateData(String dataName, List<Number> data){
         allData.put(dataName, data);
-        averages.put(dataName, average);
     }
 
     public void createCSV() throws IOException {
-        File file = new File(fileName);
-        file.createNewFile();
-        List<String> csvLines = createCSVLines();
-        PrintWriter writer = new PrintWriter(fileName);
-        csvLines.forEach(writer::println);
-        writer.close();
-    }
-
-    public List<String> createCSVLines(){
-        List<String> orderList = new ArrayList<>(new ArrayList<>(allData.keySet()));
-        List<String> csvLines = new ArrayList<>();
+        List<String> orderList = new ArrayList<>(allData.keySet());
+        List<List<Number>> columns = new ArrayList<>(allData.values());
 
-        csvLines.add(createLine(orderList));
+        try (StreamingCSVWriter writer = new StreamingCSVWriter(fileName, orderList)) {
+            for (int i = 0; i < columns.get(0).size(); i++){
+                Number[] row = new Number[columns.size()];
+                for (int j = 0; j < columns.size(); j++)
+                    row[j] = columns.get(j).get(i);
 
-        for (int i=0; i<allData.get(orderList.get(0)).size(); i++){
-            List<String> csvStrings = new ArrayList<>();
-            for (String name: orderList)
-                csvStrings.add(allData.get(name).get(i).toString());
-
-            csvLines.add(createLine(csvStrings));
+                writer.writeRow(row);
+            }
         }
-
-        List<String> csvAverages = new ArrayList<>();
-        for (String name: orderList)
-            csvAverages.add(averages.get(name).toString());
-        csvLines.add(createLine(csvAverages));
-
-        return csvLines;
-    }
-
-    public String createLine(List<String> orderedStrings){
-        return String.join(",", orderedStrings);
     }
 }
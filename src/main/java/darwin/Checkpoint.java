@@ -0,0 +1,200 @@
+package darwin;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+public class Checkpoint {
+    private static final int magic = 0x4457434B;
+    private static final int version = 2;
+    private static final int fieldsSize = 256;
+    boolean ifWallMap;
+    int width;
+    int height;
+    float jungleRatio;
+    int startEnergy;
+    int moveEnergy;
+    int grassEnergy;
+    int moveDelay;
+    boolean ifMagicBorn;
+    long seed;
+    int currDay;
+    int currAnimalsNumber;
+    int magicBornCounter;
+    int deadAnimalsCounter;
+    float averageLifetime;
+    long movesCounter;
+    int nextId;
+    int[] ids;
+    float[] energies;
+    int[] cells;
+    byte[] orients;
+    int[] birthDays;
+    int[] lifetimes;
+    int[] childrenNumbers;
+    byte[] alive;
+    long[] genesLow;
+    long[] genesHigh;
+    int[] animalCells;
+    int[] grassCells;
+    long[] genotypesLow;
+    long[] genotypesHigh;
+    int[] genotypeCounts;
+
+    public int getDay(){
+        return currDay;
+    }
+
+    public int getAnimalsNumber(){
+        return ids.length;
+    }
+
+    public void write(String fileName) throws IOException {
+        ByteBuffer buffer = toByteBuffer();
+
+        Path path = Path.of(fileName);
+        Path temporaryPath = Path.of(fileName + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            channel.force(false);
+        }
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static Checkpoint read(String fileName) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        return fromByteBuffer(buffer, fileName);
+    }
+
+    ByteBuffer toByteBuffer(){
+        int arraysSize = 4 * (ids.length + energies.length + cells.length + birthDays.length + lifetimes.length
+                + childrenNumbers.length + animalCells.length + grassCells.length + genotypeCounts.length)
+                + orients.length + alive.length
+                + 8 * (genesLow.length + genesHigh.length + genotypesLow.length + genotypesHigh.length);
+        ByteBuffer buffer = ByteBuffer.allocate(fieldsSize + arraysSize);
+
+        buffer.putInt(magic);
+        buffer.putInt(version);
+        buffer.put((byte) (ifWallMap ? 1 : 0));
+        buffer.putInt(width);
+        buffer.putInt(height);
+        buffer.putFloat(jungleRatio);
+        buffer.putInt(startEnergy);
+        buffer.putInt(moveEnergy);
+        buffer.putInt(grassEnergy);
+        buffer.putInt(moveDelay);
+        buffer.put((byte) (ifMagicBorn ? 1 : 0));
+        buffer.putLong(seed);
+        buffer.putInt(currDay);
+        buffer.putInt(currAnimalsNumber);
+        buffer.putInt(magicBornCounter);
+        buffer.putInt(deadAnimalsCounter);
+        buffer.putFloat(averageLifetime);
+        buffer.putLong(movesCounter);
+        buffer.putInt(nextId);
+
+        putInts(buffer, ids);
+        buffer.putInt(energies.length);
+        buffer.asFloatBuffer().put(energies);
+        buffer.position(buffer.position() + 4 * energies.length);
+        putInts(buffer, cells);
+        buffer.putInt(orients.length).put(orients);
+        putInts(buffer, birthDays);
+        putInts(buffer, lifetimes);
+        putInts(buffer, childrenNumbers);
+        buffer.putInt(alive.length).put(alive);
+        putLongs(buffer, genesLow);
+        putLongs(buffer, genesHigh);
+        putInts(buffer, animalCells);
+        putInts(buffer, grassCells);
+        putLongs(buffer, genotypesLow);
+        putLongs(buffer, genotypesHigh);
+        putInts(buffer, genotypeCounts);
+        buffer.flip();
+        return buffer;
+    }
+
+    static Checkpoint fromByteBuffer(ByteBuffer buffer, String sourceName) throws IOException {
+        if (buffer.limit() < 8 || buffer.getInt() != magic)
+            throw new IOException(sourceName + " is not a checkpoint file");
+        if (buffer.getInt() != version)
+            throw new IOException("Unsupported checkpoint version in " + sourceName);
+
+        Checkpoint checkpoint = new Checkpoint();
+        checkpoint.ifWallMap = buffer.get() == 1;
+        checkpoint.width = buffer.getInt();
+        checkpoint.height = buffer.getInt();
+        checkpoint.jungleRatio = buffer.getFloat();
+        checkpoint.startEnergy = buffer.getInt();
+        checkpoint.moveEnergy = buffer.getInt();
+        checkpoint.grassEnergy = buffer.getInt();
+        checkpoint.moveDelay = buffer.getInt();
+        checkpoint.ifMagicBorn = buffer.get() == 1;
+        checkpoint.seed = buffer.getLong();
+        checkpoint.currDay = buffer.getInt();
+        checkpoint.currAnimalsNumber = buffer.getInt();
+        checkpoint.magicBornCounter = buffer.getInt();
+        checkpoint.deadAnimalsCounter = buffer.getInt();
+        checkpoint.averageLifetime = buffer.getFloat();
+        checkpoint.movesCounter = buffer.getLong();
+        checkpoint.nextId = buffer.getInt();
+
+        checkpoint.ids = getInts(buffer);
+        checkpoint.energies = new float[buffer.getInt()];
+        buffer.asFloatBuffer().get(checkpoint.energies);
+        buffer.position(buffer.position() + 4 * checkpoint.energies.length);
+        checkpoint.cells = getInts(buffer);
+        checkpoint.orients = new byte[buffer.getInt()];
+        buffer.get(checkpoint.orients);
+        checkpoint.birthDays = getInts(buffer);
+        checkpoint.lifetimes = getInts(buffer);
+        checkpoint.childrenNumbers = getInts(buffer);
+        checkpoint.alive = new byte[buffer.getInt()];
+        buffer.get(checkpoint.alive);
+        checkpoint.genesLow = getLongs(buffer);
+        checkpoint.genesHigh = getLongs(buffer);
+        checkpoint.animalCells = getInts(buffer);
+        checkpoint.grassCells = getInts(buffer);
+        checkpoint.genotypesLow = getLongs(buffer);
+        checkpoint.genotypesHigh = getLongs(buffer);
+        checkpoint.genotypeCounts = getInts(buffer);
+
+        return checkpoint;
+    }
+
+    private static void putInts(ByteBuffer buffer, int[] values){
+        buffer.putInt(values.length);
+        buffer.asIntBuffer().put(values);
+        buffer.position(buffer.position() + 4 * values.length);
+    }
+
+    private static void putLongs(ByteBuffer buffer, long[] values){
+        buffer.putInt(values.length);
+        buffer.asLongBuffer().put(values);
+        buffer.position(buffer.position() + 8 * values.length);
+    }
+
+    private static int[] getInts(ByteBuffer buffer){
+        int[] values = new int[buffer.getInt()];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + 4 * values.length);
+        return values;
+    }
+
+    private static long[] getLongs(ByteBuffer buffer){
+        long[] values = new long[buffer.getInt()];
+        buffer.asLongBuffer().get(values);
+        buffer.position(buffer.position() + 8 * values.length);
+        return values;
+    }
+}
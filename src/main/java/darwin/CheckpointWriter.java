@@ -0,0 +1,53 @@
+package darwin;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class CheckpointWriter implements AutoCloseable {
+    private final String fileName;
+    private final ExecutorService executor;
+    private final AtomicReference<Checkpoint> pending = new AtomicReference<>();
+    private volatile IOException writeException = null;
+
+    public CheckpointWriter(String fileName){
+        this.fileName = fileName;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "checkpoint-writer-" + fileName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void submit(Checkpoint checkpoint) throws IOException {
+        if (writeException != null) throw writeException;
+
+        if (pending.getAndSet(checkpoint) == null)
+            executor.execute(this::writePending);
+    }
+
+    private void writePending(){
+        Checkpoint checkpoint = pending.getAndSet(null);
+        if (checkpoint == null) return;
+
+        try {
+            checkpoint.write(fileName);
+        } catch (IOException e) {
+            writeException = e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (writeException != null) throw writeException;
+    }
+}
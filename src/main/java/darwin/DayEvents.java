@@ -0,0 +1,66 @@
+package darwin;
+
+import java.util.Arrays;
+
+public class DayEvents {
+    public static final byte deathCode = 8;
+    int day;
+    byte[] moveCodes = new byte[0];
+    int movesNumber = 0;
+    final IntArrayList eatenCells = new IntArrayList();
+    final IntArrayList eaterSlots = new IntArrayList();
+    final IntArrayList birthParents = new IntArrayList();
+    final IntArrayList birthOrients = new IntArrayList();
+    long[] birthGenes = new long[16];
+    final IntArrayList magicBirths = new IntArrayList();
+    final IntArrayList grassCells = new IntArrayList();
+
+    public void clear(int day){
+        this.day = day;
+        movesNumber = 0;
+        eatenCells.clear();
+        eaterSlots.clear();
+        birthParents.clear();
+        birthOrients.clear();
+        magicBirths.clear();
+        grassCells.clear();
+    }
+
+    public void startMoves(int movesNumber){
+        if (moveCodes.length < movesNumber) moveCodes = new byte[Math.max(movesNumber, moveCodes.length * 2)];
+        this.movesNumber = movesNumber;
+    }
+
+    public void addEaten(int cell, int eaterSlot){
+        eatenCells.add(cell);
+        eaterSlots.add(eaterSlot);
+    }
+
+    public void addBirth(int dadSlot, int momSlot, int orient, long genesLow, long genesHigh){
+        int birth = birthOrients.size();
+        if (birthGenes.length < 2 * birth + 2) birthGenes = Arrays.copyOf(birthGenes, birthGenes.length * 2);
+
+        birthParents.add(dadSlot);
+        birthParents.add(momSlot);
+        birthOrients.add(orient);
+        birthGenes[2 * birth] = genesLow;
+        birthGenes[2 * birth + 1] = genesHigh;
+    }
+
+    public void addMagicBirth(int parentSlot, int cell){
+        magicBirths.add(parentSlot);
+        magicBirths.add(cell);
+    }
+
+    public void addGrass(int cell){
+        grassCells.add(cell);
+    }
+
+    public int getDay(){
+        return day;
+    }
+
+    public int getBirthsNumber(){
+        return birthOrients.size();
+    }
+}
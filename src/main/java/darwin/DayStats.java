@@ -0,0 +1,50 @@
+package darwin;
+
+public class DayStats {
+    private final int day;
+    private final int animalsNumber;
+    private final int grassNumber;
+    private final float averageEnergy;
+    private final float averageLifetime;
+    private final float averageChildrenNumber;
+    private final int magicBornCounter;
+
+    public DayStats(int day, int animalsNumber, int grassNumber, float averageEnergy, float averageLifetime,
+                    float averageChildrenNumber, int magicBornCounter){
+        this.day = day;
+        this.animalsNumber = animalsNumber;
+        this.grassNumber = grassNumber;
+        this.averageEnergy = averageEnergy;
+        this.averageLifetime = averageLifetime;
+        this.averageChildrenNumber = averageChildrenNumber;
+        this.magicBornCounter = magicBornCounter;
+    }
+
+    public int getDay() {
+        return day;
+    }
+
+    public int getAnimalsNumber() {
+        return animalsNumber;
+    }
+
+    public int getGrassNumber() {
+        return grassNumber;
+    }
+
+    public float getAverageEnergy() {
+        return averageEnergy;
+    }
+
+    public float getAverageLifetime() {
+        return averageLifetime;
+    }
+
+    public float getAverageChildrenNumber() {
+        return averageChildrenNumber;
+    }
+
+    public int getMagicBornCounter() {
+        return magicBornCounter;
+    }
+}
@@ -0,0 +1,36 @@
+package darwin;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("darwin.Deaths")
+@Label("Animal Deaths")
+@Description("Animals that ran out of energy on one simulation day")
+@Category({"Darwin World", "Population"})
+@Enabled(false)
+@StackTrace(false)
+public class DeathsEvent extends Event {
+    @Label("Day")
+    int day;
+
+    @Label("Deaths")
+    int deathsNumber;
+
+    @Label("Animals")
+    int animalsNumber;
+
+    public static void commit(int day, int deathsNumber, int animalsNumber){
+        DeathsEvent event = new DeathsEvent();
+        if (!event.shouldCommit()) return;
+
+        event.day = day;
+        event.deathsNumber = deathsNumber;
+        event.animalsNumber = animalsNumber;
+        event.commit();
+    }
+}
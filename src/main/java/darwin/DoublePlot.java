@@ -3,7 +3,6 @@ package darwin;
 import javafx.scene.chart.LineChart;
 import javafx.scene.chart.NumberAxis;
 import javafx.scene.chart.XYChart;
-import java.util.ArrayList;
 import java.util.List;
 
 
@@ -14,8 +13,8 @@ public class DoublePlot{
     private final NumberAxis xAxis = new NumberAxis();
     private final XYChart.Series<Number, Number> series1 = new XYChart.Series<>();
     private final XYChart.Series<Number, Number> series2 = new XYChart.Series<>();
-    private final List<Number> series1AllValues = new ArrayList<>();
-    private final List<Number> series2AllValues = new ArrayList<>();
+    private final TimeSeries series1AllValues = new TimeSeries(true);
+    private final TimeSeries series2AllValues = new TimeSeries(true);
 
     public DoublePlot(String series1Name, String series2Name, Number firstValueSeries1, Number firstValueSeries2){
         NumberAxis yAxis = new NumberAxis();
@@ -30,37 +29,58 @@ public class DoublePlot{
     }
 
     public void updatePlot(int day, Number firstSeriesValue, Number secondSeriesValue){
-        series1.getData().add(new XYChart.Data<>(day, firstSeriesValue));
-        series2.getData().add(new XYChart.Data<>(day, secondSeriesValue));
-        series1AllValues.add(firstSeriesValue);
-        series2AllValues.add(secondSeriesValue);
+        series1AllValues.add(firstSeriesValue.doubleValue());
+        series2AllValues.add(secondSeriesValue.doubleValue());
+        addToWindow(series1, day, firstSeriesValue);
+        addToWindow(series2, day, secondSeriesValue);
 
-        if (series1.getData().size() > maxPoints){
-            firstDayInPlot++;
-            series1.getData().remove(0);
-            series2.getData().remove(0);
+        if (series1.getData().size() == maxPoints){
+            firstDayInPlot = series1.getData().get(0).getXValue().intValue();
             xAxis.setLowerBound(firstDayInPlot);
             xAxis.setUpperBound(maxPoints+firstDayInPlot);
         }
     }
 
+    private void addToWindow(XYChart.Series<Number, Number> series, int day, Number value){
+        if (series.getData().size() < maxPoints){
+            series.getData().add(new XYChart.Data<>(day, value));
+            return;
+        }
+
+        List<XYChart.Data<Number, Number>> points = series.getData();
+        for (int i = 0; i < points.size() - 1; i++){
+            points.get(i).setXValue(points.get(i + 1).getXValue());
+            points.get(i).setYValue(points.get(i + 1).getYValue());
+        }
+        points.get(points.size() - 1).setXValue(day);
+        points.get(points.size() - 1).setYValue(value);
+    }
+
     public LineChart<Number, Number> getLineChart() {
         return lineChart;
     }
 
     public List<Number> getSeries1AllValues() {
-        return series1AllValues;
+        return series1AllValues.asList();
     }
 
     public List<Number> getSeries2AllValues() {
+        return series2AllValues.asList();
+    }
+
+    public TimeSeries getSeries1() {
+        return series1AllValues;
+    }
+
+    public TimeSeries getSeries2() {
         return series2AllValues;
     }
 
     public Number getSeries1Average(){
-        return series1AllValues.stream().mapToDouble(Number::doubleValue).sum() / series1AllValues.size();
+        return series1AllValues.getMean();
     }
 
     public Number getSeries2Average(){
-        return series2AllValues.stream().mapToDouble(Number::doubleValue).sum() / series2AllValues.size();
+        return series2AllValues.getMean();
     }
 }
@@ -0,0 +1,185 @@
+package darwin;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class EventLogReader implements AutoCloseable {
+    private final String fileName;
+    private final FileChannel channel;
+    private long[] dayOffsets = new long[1024];
+    private int firstDay = -1;
+    private int daysNumber = 0;
+    private final IntArrayList keyframeDays = new IntArrayList();
+    private long[] keyframeOffsets = new long[16];
+
+    public EventLogReader(String fileName) throws IOException {
+        this.fileName = fileName;
+        this.channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ);
+
+        try {
+            readIndex();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void readIndex() throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(
+                Path.of(fileName)), 1 << 16))) {
+            if (input.readInt() != EventLogWriter.magic) throw new IOException(fileName + " is not an event log");
+            if (input.readInt() != EventLogWriter.version)
+                throw new IOException("Unsupported event log version in " + fileName);
+
+            long offset = 8;
+            while (true){
+                int type = input.read();
+                if (type == -1) break;
+
+                int[] lengthBytes = new int[1];
+                int length = readVarInt(input, lengthBytes);
+                long payloadOffset = offset + 1 + lengthBytes[0];
+                if (payloadOffset + length > channel.size()) break;
+
+                int day = readVarInt(input, lengthBytes);
+                input.skipNBytes(length - lengthBytes[0]);
+                addRecord(type, day, offset + 1);
+                offset = payloadOffset + length;
+            }
+        } catch (EOFException e) {
+            // the last record was cut off by a crash, the ones before it are still valid
+        }
+
+        if (keyframeDays.size() == 0) throw new IOException(fileName + " has no keyframes");
+    }
+
+    private void addRecord(int type, int day, long recordOffset){
+        if (type == EventLogWriter.keyframeRecord){
+            if (keyframeDays.size() == keyframeOffsets.length)
+                keyframeOffsets = Arrays.copyOf(keyframeOffsets, keyframeOffsets.length * 2);
+
+            keyframeOffsets[keyframeDays.size()] = recordOffset;
+            keyframeDays.add(day);
+            if (firstDay == -1) firstDay = day;
+        }
+        else if (type == EventLogWriter.dayRecord && firstDay != -1 && day == firstDay + daysNumber + 1){
+            if (daysNumber == dayOffsets.length) dayOffsets = Arrays.copyOf(dayOffsets, dayOffsets.length * 2);
+            dayOffsets[daysNumber++] = recordOffset;
+        }
+    }
+
+    public int getFirstDay(){
+        return firstDay;
+    }
+
+    public int getLastDay(){
+        return firstDay + daysNumber;
+    }
+
+    public boolean hasDay(int day){
+        return day > firstDay && day <= getLastDay();
+    }
+
+    public SimulationEngine createReplay(int day, IAppObserver observer) throws IOException {
+        if (day < firstDay || day > getLastDay())
+            throw new IOException("Day " + day + " is not in " + fileName + " (days " + firstDay + "-"
+                    + getLastDay() + ")");
+
+        int keyframe = keyframeDays.lowerBound(day + 1) - 1;
+        ByteBuffer payload = readPayload(keyframeOffsets[keyframe]);
+        readVarInt(payload);
+
+        SimulationEngine engine = new SimulationEngine(Checkpoint.fromByteBuffer(payload.slice(), fileName), observer);
+        engine.setReplay(this);
+        engine.fastForward(day);
+        return engine;
+    }
+
+    public DayEvents readDay(int day, DayEvents events) throws IOException {
+        if (!hasDay(day)) throw new IOException("Day " + day + " is not in " + fileName);
+
+        ByteBuffer payload = readPayload(dayOffsets[day - firstDay - 1]);
+        events.clear(readVarInt(payload));
+
+        events.startMoves(readVarInt(payload));
+        for (int slot = 0; slot < events.movesNumber; slot += 2){
+            int codes = payload.get();
+            events.moveCodes[slot] = (byte) (codes & 0x0F);
+            if (slot + 1 < events.movesNumber) events.moveCodes[slot + 1] = (byte) ((codes >>> 4) & 0x0F);
+        }
+
+        int eatenNumber = readVarInt(payload);
+        int cell = 0;
+        for (int i = 0; i < eatenNumber; i++){
+            cell += readVarInt(payload);
+            events.addEaten(cell, readVarInt(payload) - 1);
+        }
+
+        int birthsNumber = readVarInt(payload);
+        for (int i = 0; i < birthsNumber; i++){
+            int dadSlot = readVarInt(payload);
+            int momSlot = readVarInt(payload);
+            int orient = payload.get();
+            events.addBirth(dadSlot, momSlot, orient, payload.getLong(), payload.getLong());
+        }
+
+        int magicBirthsNumber = readVarInt(payload);
+        for (int i = 0; i < magicBirthsNumber; i++)
+            events.addMagicBirth(readVarInt(payload), readVarInt(payload));
+
+        int grassNumber = readVarInt(payload);
+        for (int i = 0; i < grassNumber; i++)
+            events.addGrass(readVarInt(payload));
+
+        return events;
+    }
+
+    private ByteBuffer readPayload(long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(5);
+        channel.read(header, offset);
+        header.flip();
+        int length = readVarInt(header);
+
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        long position = offset + header.position();
+        while (payload.hasRemaining()){
+            int read = channel.read(payload, position + payload.position());
+            if (read == -1) throw new EOFException("Record at " + offset + " is cut off in " + fileName);
+        }
+        payload.flip();
+        return payload;
+    }
+
+    private static int readVarInt(ByteBuffer buffer){
+        int value = 0;
+        for (int shift = 0; ; shift += 7){
+            int b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+    }
+
+    private static int readVarInt(DataInputStream input, int[] bytesNumber) throws IOException {
+        int value = 0;
+        bytesNumber[0] = 0;
+        for (int shift = 0; ; shift += 7){
+            int b = input.readUnsignedByte();
+            bytesNumber[0]++;
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,110 @@
+package darwin;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class EventLogWriter implements AutoCloseable {
+    static final int magic = 0x44574556;
+    static final int version = 1;
+    static final byte keyframeRecord = 1;
+    static final byte dayRecord = 2;
+    private final DataOutputStream output;
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+    private final int keyframeInterval;
+
+    public EventLogWriter(String fileName, int keyframeInterval) throws IOException {
+        if (keyframeInterval <= 0)
+            throw new IllegalArgumentException("Keyframe interval must be positive, got " + keyframeInterval);
+
+        this.keyframeInterval = keyframeInterval;
+        this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(Path.of(fileName)),
+                1 << 16));
+        output.writeInt(magic);
+        output.writeInt(version);
+    }
+
+    public boolean isKeyframeDay(int day){
+        return day % keyframeInterval == 0;
+    }
+
+    public void writeKeyframe(Checkpoint checkpoint) throws IOException {
+        ByteBuffer buffer = checkpoint.toByteBuffer();
+
+        record.reset();
+        writeVarInt(record, checkpoint.getDay());
+        record.write(buffer.array(), 0, buffer.limit());
+        writeRecord(keyframeRecord);
+    }
+
+    public void writeDay(DayEvents events) throws IOException {
+        record.reset();
+        writeVarInt(record, events.day);
+
+        writeVarInt(record, events.movesNumber);
+        for (int slot = 0; slot < events.movesNumber; slot += 2){
+            int second = (slot + 1 < events.movesNumber) ? events.moveCodes[slot + 1] : 0;
+            record.write(events.moveCodes[slot] | (second << 4));
+        }
+
+        writeVarInt(record, events.eatenCells.size());
+        int previousCell = 0;
+        for (int i = 0; i < events.eatenCells.size(); i++){
+            writeVarInt(record, events.eatenCells.get(i) - previousCell);
+            writeVarInt(record, events.eaterSlots.get(i) + 1);
+            previousCell = events.eatenCells.get(i);
+        }
+
+        writeVarInt(record, events.getBirthsNumber());
+        for (int birth = 0; birth < events.getBirthsNumber(); birth++){
+            writeVarInt(record, events.birthParents.get(2 * birth));
+            writeVarInt(record, events.birthParents.get(2 * birth + 1));
+            record.write(events.birthOrients.get(birth));
+            writeLong(record, events.birthGenes[2 * birth]);
+            writeLong(record, events.birthGenes[2 * birth + 1]);
+        }
+
+        writeVarInt(record, events.magicBirths.size() / 2);
+        for (int i = 0; i < events.magicBirths.size(); i++)
+            writeVarInt(record, events.magicBirths.get(i));
+
+        writeVarInt(record, events.grassCells.size());
+        for (int i = 0; i < events.grassCells.size(); i++)
+            writeVarInt(record, events.grassCells.get(i));
+
+        writeRecord(dayRecord);
+    }
+
+    private void writeRecord(byte type) throws IOException {
+        output.writeByte(type);
+        writeVarInt(output, record.size());
+        record.writeTo(output);
+    }
+
+    private static void writeVarInt(OutputStream stream, int value) throws IOException {
+        while ((value & ~0x7F) != 0){
+            stream.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        stream.write(value);
+    }
+
+    private static void writeLong(ByteArrayOutputStream stream, long value){
+        for (int shift = 56; shift >= 0; shift -= 8)
+            stream.write((int) (value >>> shift));
+    }
+
+    public void flush() throws IOException {
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+}
@@ -0,0 +1,50 @@
+package darwin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class FrameHandoff {
+    private final IndexedCellSet pendingChangedCells;
+    private final List<DayStats> pendingStats = new ArrayList<>();
+    private final MapFrame[] frames = new MapFrame[2];
+    private MapFrame pendingFrame = null;
+    private MapFrame takenFrame = null;
+
+    public FrameHandoff(int cellsNumber){
+        this.pendingChangedCells = new IndexedCellSet(cellsNumber);
+    }
+
+    public synchronized boolean publish(AbstractMap map, DayStats stats){
+        int[] changedCells = map.getChangedCells();
+        int target = (takenFrame != null && takenFrame == frames[0]) ? 1 : 0;
+        MapFrame frame = frames[target];
+        boolean ifNothingPending = pendingFrame == null;
+
+        if (frame == null){
+            frame = MapFrame.capture(map, stats);
+            frames[target] = frame;
+        }
+        else
+            frame.update(map, stats, changedCells);
+        if (frames[1 - target] != null) frames[1 - target].markStale(changedCells);
+
+        for (int cell: changedCells)
+            pendingChangedCells.add(cell);
+        pendingStats.add(stats);
+        pendingFrame = frame;
+        return ifNothingPending;
+    }
+
+    public synchronized MapFrame take(List<DayStats> stats, IntArrayList changedCells){
+        MapFrame frame = pendingFrame;
+        pendingFrame = null;
+        if (frame != null) takenFrame = frame;
+
+        stats.addAll(pendingStats);
+        pendingStats.clear();
+        for (int i = 0; i < pendingChangedCells.size(); i++)
+            changedCells.add(pendingChangedCells.get(i));
+        pendingChangedCells.clear();
+        return frame;
+    }
+}
@@ -0,0 +1,71 @@
+package darwin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class Genome {
+    public static final int genesNumber = 32;
+    public static final int genesPerWord = 16;
+    public static final int genesTypesNumber = 8;
+    private static final int bitsPerGene = 3;
+    private static final long geneMask = 7L;
+
+    public static int getGene(long low, long high, int index){
+        long word = (index < genesPerWord) ? low : high;
+        return (int) ((word >>> (bitsPerGene * (index - (index < genesPerWord ? 0 : genesPerWord)))) & geneMask);
+    }
+
+    public static long setGene(long word, int indexInWord, int gene){
+        int shift = bitsPerGene * indexInWord;
+        return (word & ~(geneMask << shift)) | ((long) gene << shift);
+    }
+
+    public static long firstGenesMask(int genesInWord){
+        return (1L << (bitsPerGene * genesInWord)) - 1;
+    }
+
+    public static long crossLow(long leftLow, long rightLow, int leftGenesNumber){
+        if (leftGenesNumber >= genesPerWord) return leftLow;
+
+        long mask = firstGenesMask(leftGenesNumber);
+        return (leftLow & mask) | (rightLow & ~mask);
+    }
+
+    public static long crossHigh(long leftHigh, long rightHigh, int leftGenesNumber){
+        if (leftGenesNumber <= genesPerWord) return rightHigh;
+
+        long mask = firstGenesMask(leftGenesNumber - genesPerWord);
+        return (leftHigh & mask) | (rightHigh & ~mask);
+    }
+
+    public static long sortedWord(long packedOccurrences, int firstIndex){
+        long word = 0;
+        int index = 0;
+
+        for (int gene = 0; gene < genesTypesNumber && index < firstIndex + genesPerWord; gene++){
+            int occurrences = getOccurrences(packedOccurrences, gene);
+            for (int i = 0; i < occurrences && index < firstIndex + genesPerWord; i++, index++){
+                if (index >= firstIndex)
+                    word = setGene(word, index - firstIndex, gene);
+            }
+        }
+
+        return word;
+    }
+
+    public static long addOccurrence(long packedOccurrences, int gene){
+        return packedOccurrences + (1L << (6 * gene));
+    }
+
+    public static int getOccurrences(long packedOccurrences, int gene){
+        return (int) ((packedOccurrences >>> (6 * gene)) & 63);
+    }
+
+    public static List<Integer> toList(long low, long high){
+        List<Integer> genes = new ArrayList<>(genesNumber);
+        for (int i = 0; i < genesNumber; i++)
+            genes.add(getGene(low, high, i));
+
+        return genes;
+    }
+}
@@ -0,0 +1,163 @@
+package darwin;
+
+import java.util.Arrays;
+
+public class GenotypeTracker {
+    private static final int initialCapacity = 16;
+    private int size = 0;
+    private long[] genesLow = new long[initialCapacity];
+    private long[] genesHigh = new long[initialCapacity];
+    private int[] counts = new int[initialCapacity];
+    private int[] ranks = new int[initialCapacity];
+    private int[] entriesByRank = new int[initialCapacity];
+    private int[] entriesWithAtLeast = new int[initialCapacity];
+    private int[] table = new int[initialCapacity * 2];
+
+    public void increment(long low, long high){
+        int entry = find(low, high);
+        if (entry == -1) entry = insert(low, high);
+
+        int count = counts[entry];
+        if (count + 1 == entriesWithAtLeast.length)
+            entriesWithAtLeast = Arrays.copyOf(entriesWithAtLeast, entriesWithAtLeast.length * 2);
+
+        swapRanks(ranks[entry], entriesWithAtLeast[count + 1]);
+        entriesWithAtLeast[count + 1]++;
+        counts[entry] = count + 1;
+    }
+
+    public void decrement(long low, long high){
+        int entry = find(low, high);
+        if (entry == -1) return;
+
+        int count = counts[entry];
+        swapRanks(ranks[entry], entriesWithAtLeast[count] - 1);
+        entriesWithAtLeast[count]--;
+        counts[entry] = count - 1;
+
+        if (count == 1) delete(entry);
+    }
+
+    public void restoreEntry(long low, long high, int count){
+        int entry = insert(low, high);
+        while (count + 1 >= entriesWithAtLeast.length)
+            entriesWithAtLeast = Arrays.copyOf(entriesWithAtLeast, entriesWithAtLeast.length * 2);
+
+        for (int i = 1; i <= count; i++)
+            entriesWithAtLeast[i]++;
+        counts[entry] = count;
+    }
+
+    public int getOccurrences(long low, long high){
+        int entry = find(low, high);
+        return (entry == -1) ? 0 : counts[entry];
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public long getGenesLow(int rank){
+        return genesLow[entriesByRank[rank]];
+    }
+
+    public long getGenesHigh(int rank){
+        return genesHigh[entriesByRank[rank]];
+    }
+
+    public int getCount(int rank){
+        return counts[entriesByRank[rank]];
+    }
+
+    private void swapRanks(int firstRank, int secondRank){
+        int firstEntry = entriesByRank[firstRank];
+        int secondEntry = entriesByRank[secondRank];
+        entriesByRank[firstRank] = secondEntry;
+        entriesByRank[secondRank] = firstEntry;
+        ranks[firstEntry] = secondRank;
+        ranks[secondEntry] = firstRank;
+    }
+
+    private int find(long low, long high){
+        int mask = table.length - 1;
+        for (int i = hash(low, high) & mask; table[i] != 0; i = (i + 1) & mask){
+            int entry = table[i] - 1;
+            if (genesLow[entry] == low && genesHigh[entry] == high) return entry;
+        }
+
+        return -1;
+    }
+
+    private int insert(long low, long high){
+        if (size == counts.length) grow();
+
+        int entry = size;
+        genesLow[entry] = low;
+        genesHigh[entry] = high;
+        counts[entry] = 0;
+        ranks[entry] = entry;
+        entriesByRank[entry] = entry;
+        size++;
+        putInTable(entry);
+        return entry;
+    }
+
+    private void delete(int entry){
+        int lastEntry = size - 1;
+        removeFromTable(entry);
+
+        if (entry != lastEntry){
+            removeFromTable(lastEntry);
+            genesLow[entry] = genesLow[lastEntry];
+            genesHigh[entry] = genesHigh[lastEntry];
+            counts[entry] = counts[lastEntry];
+            ranks[entry] = ranks[lastEntry];
+            entriesByRank[ranks[entry]] = entry;
+            putInTable(entry);
+        }
+
+        size--;
+    }
+
+    private void putInTable(int entry){
+        int mask = table.length - 1;
+        int i = hash(genesLow[entry], genesHigh[entry]) & mask;
+        while (table[i] != 0) i = (i + 1) & mask;
+        table[i] = entry + 1;
+    }
+
+    private void removeFromTable(int entry){
+        int mask = table.length - 1;
+        int i = hash(genesLow[entry], genesHigh[entry]) & mask;
+        while (table[i] != entry + 1) i = (i + 1) & mask;
+        table[i] = 0;
+
+        for (int j = (i + 1) & mask; table[j] != 0; j = (j + 1) & mask){
+            int movedEntry = table[j] - 1;
+            int home = hash(genesLow[movedEntry], genesHigh[movedEntry]) & mask;
+            if (((j - home) & mask) >= ((j - i) & mask)){
+                table[i] = table[j];
+                table[j] = 0;
+                i = j;
+            }
+        }
+    }
+
+    private void grow(){
+        int capacity = counts.length * 2;
+        genesLow = Arrays.copyOf(genesLow, capacity);
+        genesHigh = Arrays.copyOf(genesHigh, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+        ranks = Arrays.copyOf(ranks, capacity);
+        entriesByRank = Arrays.copyOf(entriesByRank, capacity);
+        table = new int[capacity * 2];
+
+        for (int entry = 0; entry < size; entry++)
+            putInTable(entry);
+    }
+
+    private static int hash(long low, long high){
+        long mixed = (low * 0x9E3779B97F4A7C15L) ^ (high * 0xC2B2AE3D27D4EB4FL);
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+}
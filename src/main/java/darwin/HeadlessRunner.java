@@ -0,0 +1,361 @@
+package darwin;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+public class HeadlessRunner {
+    static final Map<String, String> menuOptionNames = createMenuOptionNames();
+    static final Map<String, Boolean> statsColumns = createStatsColumns();
+    private final Map<String, String> menuValues = OptionParser.createDefaultMenuValues();
+    private int days = 1000;
+    private String maps = "both";
+    private String outputPrefix = "";
+    private boolean binaryOutput = false;
+    private int checkpointInterval = 0;
+    private String resumePath = null;
+    private int keyframeInterval = 0;
+    private String replayPath = null;
+    private Integer replayFrom = null;
+    private Integer metricsPort = null;
+    private int threads = 1;
+    private Long seed = null;
+
+    public static void main(String[] args) {
+        HeadlessRunner runner = new HeadlessRunner();
+
+        try {
+            runner.readOptions(args);
+            runner.run();
+        } catch (Exception e) {
+            System.err.println(e.getMessage());
+            System.err.println(getUsage());
+            System.exit(1);
+        }
+    }
+
+    static String getUsage(){
+        return "Usage: HeadlessRunner [key=value ...]. Possible keys: " + String.join(", ", getOptionNames());
+    }
+
+    private static List<String> getOptionNames(){
+        List<String> optionNames = new ArrayList<>(menuOptionNames.keySet());
+        optionNames.addAll(List.of("days", "maps", "threads", "seed", "checkpointInterval", "resume", "eventLog",
+                "replay", "replayFrom", "metricsPort", "format", "output", "config"));
+        return optionNames;
+    }
+
+    private static Map<String, String> createMenuOptionNames(){
+        Map<String, String> optionNames = new HashMap<>();
+        optionNames.put("mapHeight", "Map height");
+        optionNames.put("mapWidth", "Map width");
+        optionNames.put("jungleRatio", "Jungle ratio");
+        optionNames.put("grassEnergy", "Grass energy");
+        optionNames.put("startEnergy", "Animal start energy");
+        optionNames.put("moveEnergy", "Animal move energy");
+        optionNames.put("magicBorn", "Use magic born [yes/no]");
+        optionNames.put("startAnimals", "Start animals number");
+
+        return optionNames;
+    }
+
+    public void readOptions(String[] args) throws Exception {
+        for (String arg: args){
+            String[] keyAndValue = arg.replaceFirst("^--", "").split("=", 2);
+            if (keyAndValue.length != 2)
+                throw new Exception("Wrong argument '" + arg + "'. Expected key=value");
+
+            if (keyAndValue[0].equals("config"))
+                readPropertiesFile(keyAndValue[1]);
+            else
+                setOption(keyAndValue[0], keyAndValue[1]);
+        }
+    }
+
+    private void readPropertiesFile(String path) throws Exception {
+        Properties properties = new Properties();
+        try (Reader reader = new FileReader(path)) {
+            properties.load(reader);
+        }
+
+        for (String key: properties.stringPropertyNames())
+            setOption(key, properties.getProperty(key).trim());
+    }
+
+    private void setOption(String key, String value) throws Exception {
+        if (menuOptionNames.containsKey(key))
+            menuValues.put(menuOptionNames.get(key), value);
+        else if (key.equals("days"))
+            days = OptionParser.parseIntegerValues(value).intValue();
+        else if (key.equals("maps"))
+            maps = parseMaps(value);
+        else if (key.equals("threads"))
+            threads = OptionParser.parseIntegerValues(value).intValue();
+        else if (key.equals("seed"))
+            seed = Long.parseLong(value);
+        else if (key.equals("checkpointInterval"))
+            checkpointInterval = OptionParser.parseIntegerValues(value).intValue();
+        else if (key.equals("resume"))
+            resumePath = value;
+        else if (key.equals("eventLog"))
+            keyframeInterval = OptionParser.parseIntegerValues(value).intValue();
+        else if (key.equals("replay"))
+            replayPath = value;
+        else if (key.equals("replayFrom"))
+            replayFrom = OptionParser.parseIntegerValues(value).intValue();
+        else if (key.equals("metricsPort"))
+            metricsPort = OptionParser.parseIntegerValues(value).intValue();
+        else if (key.equals("format"))
+            binaryOutput = parseFormat(value);
+        else if (key.equals("output"))
+            outputPrefix = value.isEmpty() ? "" : value + "_";
+        else
+            throw new Exception("Unknown option '" + key + "'");
+    }
+
+    private boolean parseFormat(String value) throws Exception {
+        return switch (value.toLowerCase()){
+            case "csv" -> false;
+            case "binary" -> true;
+            default -> throw new Exception("Wrong format input. Possible ones: 'csv', 'binary'");
+        };
+    }
+
+    private String parseMaps(String value) throws Exception {
+        return switch (value.toLowerCase()){
+            case "snake", "wall", "both" -> value.toLowerCase();
+            default -> throw new Exception("Wrong maps input. Possible ones: 'snake', 'wall', 'both'");
+        };
+    }
+
+    public void run() throws Exception {
+        List<HeadlessSimulation> simulations;
+        if (replayPath != null) simulations = replaySimulation();
+        else if (resumePath != null) simulations = resumeSimulation();
+        else simulations = createSimulations();
+
+        MetricsServer metricsServer = null;
+        if (metricsPort != null){
+            metricsServer = new MetricsServer(metricsPort);
+            System.out.println("Metrics on http://localhost:" + metricsServer.getPort() + "/metrics");
+        }
+
+        List<Thread> threads = new ArrayList<>();
+        for (HeadlessSimulation simulation: simulations){
+            simulation.registerMetrics(metricsServer);
+            Thread thread = new Thread(simulation);
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread: threads)
+            thread.join();
+
+        for (HeadlessSimulation simulation: simulations){
+            simulation.printThroughput();
+            simulation.close();
+        }
+        if (metricsServer != null) metricsServer.close();
+    }
+
+    private List<HeadlessSimulation> createSimulations() throws Exception {
+        Map<String, Number> menuArgs = OptionParser.parseValues(menuValues);
+        long seed = (this.seed != null) ? this.seed : new Random().nextLong();
+        List<HeadlessSimulation> simulations = new ArrayList<>();
+
+        for (String name: List.of("snake_map", "wall_map")){
+            if (!maps.equals("both") && !name.startsWith(maps)) continue;
+
+            Map<String, String> parameters = new LinkedHashMap<>();
+            parameters.put("Map", name);
+            parameters.put("Seed", String.valueOf(seed));
+            parameters.put("Days", String.valueOf(days));
+            menuArgs.forEach((argName, value) -> parameters.put(argName, value.toString()));
+
+            HeadlessSimulation simulation = new HeadlessSimulation(name, menuArgs, name.equals("wall_map"), days,
+                    threads, seed, createStatsWriter(outputPrefix + name + "_stats", parameters));
+            simulation.setCheckpoints(outputPrefix + name + "_checkpoint.dwc", checkpointInterval);
+            simulation.setEventLog(outputPrefix + name + "_events.dwe", keyframeInterval);
+            simulations.add(simulation);
+        }
+
+        return simulations;
+    }
+
+    private List<HeadlessSimulation> resumeSimulation() throws Exception {
+        Checkpoint checkpoint = Checkpoint.read(resumePath);
+        String name = checkpoint.ifWallMap ? "wall_map" : "snake_map";
+
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("Map", name);
+        parameters.put("Seed", String.valueOf(checkpoint.seed));
+        parameters.put("Days", String.valueOf(days));
+        parameters.put("Resumed from day", String.valueOf(checkpoint.getDay()));
+
+        HeadlessSimulation simulation = new HeadlessSimulation(name, checkpoint, days, threads,
+                createStatsWriter(outputPrefix + name + "_stats_from_" + checkpoint.getDay(), parameters));
+        simulation.setCheckpoints(outputPrefix + name + "_checkpoint.dwc", checkpointInterval);
+        simulation.setEventLog(outputPrefix + name + "_events_from_" + checkpoint.getDay() + ".dwe", keyframeInterval);
+
+        return List.of(simulation);
+    }
+
+    private List<HeadlessSimulation> replaySimulation() throws Exception {
+        EventLogReader replay = new EventLogReader(replayPath);
+        int fromDay = (replayFrom != null) ? replayFrom : replay.getFirstDay();
+        String name = "replay";
+
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("Replay of", replayPath);
+        parameters.put("Days", String.valueOf(days));
+        parameters.put("Replayed from day", String.valueOf(fromDay));
+
+        return List.of(new HeadlessSimulation(name, replay, fromDay, days, createStatsWriter(outputPrefix + name
+                + "_stats_from_" + fromDay, parameters)));
+    }
+
+    private IStatsWriter createStatsWriter(String fileName, Map<String, String> parameters) throws IOException {
+        if (!binaryOutput)
+            return new StreamingCSVWriter(fileName + ".csv", new ArrayList<>(statsColumns.keySet()));
+
+        return new StatsFileWriter(fileName + ".dws", statsColumns, parameters);
+    }
+
+    private static Map<String, Boolean> createStatsColumns(){
+        Map<String, Boolean> columns = new LinkedHashMap<>();
+        columns.put("Animals", true);
+        columns.put("Grass", true);
+        columns.put("Average energy", false);
+        columns.put("Average lifetime", false);
+        columns.put("Average children number", false);
+        columns.put("Magic born number", true);
+
+        return columns;
+    }
+
+    private static class HeadlessSimulation implements IAppObserver, Runnable {
+        private final String name;
+        private final int days;
+        private final SimulationEngine engine;
+        private final IStatsWriter statsWriter;
+        private CheckpointWriter checkpointWriter = null;
+        private EventLogWriter eventLogWriter = null;
+        private EventLogReader replay = null;
+        private int checkpointInterval = 0;
+        private long runTime = 0;
+        private int runDays = 0;
+        private long runMoves = 0;
+
+        HeadlessSimulation(String name, Map<String, Number> menuArgs, boolean ifWallMap, int days,
+                          int threads, long seed, IStatsWriter statsWriter) throws IOException {
+            this.name = name;
+            this.days = days;
+            int startAnimalsNumber = (int) menuArgs.get("Start animals number");
+            int startEnergy = (int) menuArgs.get("Animal start energy");
+
+            this.statsWriter = statsWriter;
+            statsWriter.writeRow(startAnimalsNumber, 0, (float) startEnergy, 0f, 0f, 0);
+
+            engine = new SimulationEngine((int) menuArgs.get("Map width"), (int) menuArgs.get("Map height"),
+                    (float) menuArgs.get("Jungle ratio"), startAnimalsNumber, startEnergy,
+                    (int) menuArgs.get("Animal move energy"), (int) menuArgs.get("Grass energy"), 0,
+                    (int) menuArgs.get("Use magic born [yes/no]") == 1, ifWallMap, this, seed);
+            engine.setThreadsNumber(threads);
+        }
+
+        HeadlessSimulation(String name, Checkpoint checkpoint, int days, int threads, IStatsWriter statsWriter){
+            this.name = name;
+            this.days = days;
+            this.statsWriter = statsWriter;
+
+            engine = new SimulationEngine(checkpoint, this);
+            engine.setThreadsNumber(threads);
+        }
+
+        HeadlessSimulation(String name, EventLogReader replay, int fromDay, int days, IStatsWriter statsWriter)
+                throws IOException {
+            this.name = name;
+            this.days = days;
+            this.statsWriter = statsWriter;
+            this.replay = replay;
+
+            engine = replay.createReplay(fromDay, this);
+        }
+
+        public void setEventLog(String fileName, int keyframeInterval) throws IOException {
+            if (keyframeInterval <= 0) return;
+
+            eventLogWriter = new EventLogWriter(fileName, keyframeInterval);
+            engine.setEventLog(eventLogWriter);
+        }
+
+        public void registerMetrics(MetricsServer metricsServer){
+            engine.getMetrics().register(name);
+            if (metricsServer != null) metricsServer.add(engine.getMetrics());
+        }
+
+        public void setCheckpoints(String fileName, int checkpointInterval){
+            this.checkpointInterval = checkpointInterval;
+            if (checkpointInterval > 0) checkpointWriter = new CheckpointWriter(fileName);
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            long startMoves = engine.getMovesCounter();
+            int startDay = engine.getCurrDay();
+            engine.setIfRunning(days > startDay);
+            if (days > startDay) engine.run();
+            runTime = System.nanoTime() - start;
+            runDays = engine.getCurrDay() - startDay;
+            runMoves = engine.getMovesCounter() - startMoves;
+        }
+
+        @Override
+        public void show(AbstractMap map, int day, int animalsNumber, int grassNumber, float averageEnergy,
+                         float averageLifetime, float averageChildrenNumber, int magicBornCounter) {
+            try {
+                statsWriter.writeRow(animalsNumber, grassNumber, averageEnergy, averageLifetime,
+                        averageChildrenNumber, magicBornCounter);
+            } catch (IOException e) {
+                e.printStackTrace();
+                engine.finished = true;
+            }
+
+            if (checkpointWriter != null && day % checkpointInterval == 0){
+                try {
+                    checkpointWriter.submit(engine.createCheckpoint());
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    engine.finished = true;
+                }
+            }
+
+            if (day >= days) engine.finished = true;
+        }
+
+        public void printThroughput(){
+            double seconds = runTime / 1e9;
+            System.out.printf("%s (seed %d): %d days in %.3f s (%.1f days/s, %.1f animal moves/s)%n", name,
+                    engine.getSeed(), runDays, seconds, runDays / seconds, runMoves / seconds);
+
+            TickMetrics metrics = engine.getMetrics();
+            double[] phaseMeans = metrics.getPhaseMeanMicros();
+            double[] phaseP99s = metrics.getPhaseP99Micros();
+            StringBuilder phases = new StringBuilder("  phases (mean/p99 us):");
+            for (int phase = 0; phase < phaseMeans.length; phase++)
+                phases.append(String.format(" %s %.1f/%.1f", TickMetrics.phaseNames[phase], phaseMeans[phase],
+                        phaseP99s[phase]));
+            System.out.println(phases);
+        }
+
+        public void close() throws IOException {
+            statsWriter.close();
+            if (checkpointWriter != null) checkpointWriter.close();
+            if (eventLogWriter != null) eventLogWriter.close();
+            if (replay != null) replay.close();
+            engine.getMetrics().unregister();
+        }
+    }
+}
@@ -2,4 +2,6 @@ package darwin;
 
 public interface IObserver {
     void positionChanged(AbstractMapElement element, Vector2d oldPosition);
+
+    void positionChanged(AbstractMapElement element, int oldCell, int newCell);
 }
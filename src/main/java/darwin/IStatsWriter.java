@@ -0,0 +1,10 @@
+package darwin;
+
+import java.io.IOException;
+
+public interface IStatsWriter extends AutoCloseable {
+    void writeRow(Number... values) throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
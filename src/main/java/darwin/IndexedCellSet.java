@@ -0,0 +1,63 @@
+package darwin;
+
+import java.util.Arrays;
+
+public class IndexedCellSet {
+    private final int[] cells;
+    private final int[] indexes;
+    private int size = 0;
+
+    public IndexedCellSet(int cellsNumber){
+        this.cells = new int[cellsNumber];
+        this.indexes = new int[cellsNumber];
+        Arrays.fill(indexes, -1);
+    }
+
+    public boolean add(int cell){
+        if (indexes[cell] != -1) return false;
+
+        cells[size] = cell;
+        indexes[cell] = size;
+        size++;
+        return true;
+    }
+
+    public boolean remove(int cell){
+        int index = indexes[cell];
+        if (index == -1) return false;
+
+        int lastCell = cells[size - 1];
+        cells[index] = lastCell;
+        indexes[lastCell] = index;
+        indexes[cell] = -1;
+        size--;
+        return true;
+    }
+
+    public int[] toArray(){
+        return Arrays.copyOf(cells, size);
+    }
+
+    public void clear(){
+        for (int i = 0; i < size; i++)
+            indexes[cells[i]] = -1;
+
+        size = 0;
+    }
+
+    public boolean contains(int cell){
+        return indexes[cell] != -1;
+    }
+
+    public int get(int index){
+        return cells[index];
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public boolean isEmpty(){
+        return size == 0;
+    }
+}
@@ -0,0 +1,63 @@
+package darwin;
+
+import java.util.Arrays;
+
+public class IntArrayList {
+    private int[] values;
+    private int size = 0;
+
+    public IntArrayList(){
+        this(16);
+    }
+
+    public IntArrayList(int initialCapacity){
+        values = new int[Math.max(1, initialCapacity)];
+    }
+
+    public void add(int value){
+        if (size == values.length) values = Arrays.copyOf(values, values.length * 2);
+        values[size++] = value;
+    }
+
+    public int get(int index){
+        return values[index];
+    }
+
+    public void set(int index, int value){
+        values[index] = value;
+    }
+
+    public void remove(int index){
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public int[] toArray(){
+        return Arrays.copyOf(values, size);
+    }
+
+    public void clear(){
+        size = 0;
+    }
+
+    public void sort(){
+        Arrays.sort(values, 0, size);
+    }
+
+    public int lowerBound(int value){
+        int low = 0;
+        int high = size;
+
+        while (low < high){
+            int middle = (low + high) >>> 1;
+            if (values[middle] < value) low = middle + 1;
+            else high = middle;
+        }
+
+        return low;
+    }
+}
@@ -0,0 +1,81 @@
+package darwin;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+    private static final int subBucketsBits = 3;
+    private static final int subBucketsNumber = 1 << subBucketsBits;
+    private static final int bucketsNumber = (64 - subBucketsBits + 1) * subBucketsNumber;
+    private final AtomicLongArray counts = new AtomicLongArray(bucketsNumber);
+    private volatile long count = 0;
+    private volatile long sum = 0;
+    private volatile long max = 0;
+
+    public void record(long nanos){
+        if (nanos < 0) nanos = 0;
+
+        int bucket = getBucket(nanos);
+        counts.lazySet(bucket, counts.get(bucket) + 1);
+        sum += nanos;
+        if (nanos > max) max = nanos;
+        count++;
+    }
+
+    public void reset(){
+        for (int bucket = 0; bucket < bucketsNumber; bucket++)
+            counts.lazySet(bucket, 0);
+
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    public long getCount(){
+        return count;
+    }
+
+    public long getSum(){
+        return sum;
+    }
+
+    public long getMax(){
+        return max;
+    }
+
+    public double getMean(){
+        long count = this.count;
+        return (count == 0) ? 0 : (double) sum / count;
+    }
+
+    public long getPercentile(double percentile){
+        long total = 0;
+        for (int bucket = 0; bucket < bucketsNumber; bucket++)
+            total += counts.get(bucket);
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < bucketsNumber; bucket++){
+            seen += counts.get(bucket);
+            if (seen >= rank) return Math.min(getBucketEnd(bucket), max);
+        }
+
+        return max;
+    }
+
+    private static int getBucket(long nanos){
+        if (nanos < subBucketsNumber) return (int) nanos;
+
+        int highestBit = 63 - Long.numberOfLeadingZeros(nanos);
+        int shift = highestBit - subBucketsBits;
+        return (shift + 1) * subBucketsNumber + (int) ((nanos >>> shift) & (subBucketsNumber - 1));
+    }
+
+    private static long getBucketEnd(int bucket){
+        if (bucket < subBucketsNumber) return bucket;
+
+        int shift = bucket / subBucketsNumber - 1;
+        long start = (long) (subBucketsNumber + bucket % subBucketsNumber) << shift;
+        return start + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,29 @@
+package darwin;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("darwin.MagicBorn")
+@Label("Magic Born")
+@Description("Copies of the last five animals placed on free fields")
+@Category({"Darwin World", "Population"})
+@Enabled(false)
+@StackTrace(false)
+public class MagicBornEvent extends Event {
+    @Label("Day")
+    int day;
+
+    @Label("Magic Born Number")
+    int magicBornNumber;
+
+    @Label("Parents")
+    int parentsNumber;
+
+    @Label("Free Fields")
+    int freeFieldsNumber;
+}
@@ -1,19 +1,24 @@
 package darwin;
 
 public enum MapDirections {
-    NORTH(0),
-    NORTHEAST(1),
-    EAST(2),
-    SOUTHEAST(3),
-    SOUTH(4),
-    SOUTHWEST(5),
-    WEST(6),
-    NORTHWEST(7);
+    NORTH(0, 0, 1),
+    NORTHEAST(1, 1, 1),
+    EAST(2, 1, 0),
+    SOUTHEAST(3, 1, -1),
+    SOUTH(4, 0, -1),
+    SOUTHWEST(5, -1, -1),
+    WEST(6, -1, 0),
+    NORTHWEST(7, -1, 1);
 
     final int directionNumber;
+    final int unitX;
+    final int unitY;
+    private static final MapDirections[] values = values();
 
-    MapDirections(int directionNumber){
+    MapDirections(int directionNumber, int unitX, int unitY){
         this.directionNumber = directionNumber;
+        this.unitX = unitX;
+        this.unitY = unitY;
     }
 
     public MapDirections getDirectionAfterRotation(int rotation){
@@ -23,42 +28,20 @@ public enum MapDirections {
     }
 
     public static MapDirections getMapDirectionFromDirectionNumber(int givenNumber) {
-        for(MapDirections direction: MapDirections.values()) {
-            if (direction.directionNumber == givenNumber) {
-                return direction;
-            }
-        }
+        if (givenNumber < 0 || givenNumber >= values.length) return null;
 
-        return null;
+        return values[givenNumber];
     }
 
     public Vector2d toUnitVector(){
-        int x = 0;
-        int y = 0;
+        return new Vector2d(unitX, unitY);
+    }
 
-        switch (this){
-            case NORTH -> y = 1;
-            case NORTHEAST -> {
-                x = 1;
-                y = 1;
-            }
-            case EAST -> x = 1;
-            case SOUTHEAST -> {
-                x = 1;
-                y = -1;
-            }
-            case SOUTH -> y = -1;
-            case SOUTHWEST -> {
-                x = -1;
-                y = -1;
-            }
-            case WEST -> x = -1;
-            case NORTHWEST -> {
-                x = -1;
-                y = 1;
-            }
-        }
+    public static int getUnitX(int directionNumber){
+        return values[directionNumber].unitX;
+    }
 
-        return new Vector2d(x, y);
+    public static int getUnitY(int directionNumber){
+        return values[directionNumber].unitY;
     }
 }
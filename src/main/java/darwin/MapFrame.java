@@ -0,0 +1,165 @@
+package darwin;
+
+import java.util.List;
+
+import static java.lang.String.valueOf;
+
+public class MapFrame {
+    public static final byte jungleFlag = 1;
+    public static final byte grassFlag = 2;
+    public static final byte animalFlag = 4;
+    public static final byte dominantFlag = 8;
+    public static final byte observedFlag = 16;
+    private final int width;
+    private final int height;
+    private final byte[] cellStates;
+    private final float[] topEnergy;
+    private final IndexedCellSet staleCells;
+    private DayStats stats;
+    private int observedCell = -1;
+    private List<Integer> dominantGenotype;
+    private String observedGenotype;
+    private String observedChildren;
+    private String observedDescendants;
+    private String observedDeadDate;
+
+    private MapFrame(AbstractMap map, DayStats stats){
+        this.width = map.getWidth();
+        this.height = map.getHeight();
+        this.cellStates = new byte[width * height];
+        this.topEnergy = new float[width * height];
+        this.staleCells = new IndexedCellSet(width * height);
+
+        for (int cell = 0; cell < cellStates.length; cell++){
+            captureCell(map, cell);
+            captureDominant(map, cell);
+        }
+        dominantGenotype = List.copyOf(map.getDominantGenotype());
+        captureDetails(map, stats);
+    }
+
+    private void captureDetails(AbstractMap map, DayStats stats){
+        this.stats = stats;
+        if (observedCell != -1) cellStates[observedCell] &= ~observedFlag;
+        Animal observedAnimal = map.observedAnimal;
+        if (observedAnimal != null){
+            observedCell = observedAnimal.isAlive() ? observedAnimal.getCell() : -1;
+            if (observedCell != -1) cellStates[observedCell] |= observedFlag;
+            observedGenotype = observedAnimal.getGenes().toString();
+            observedChildren = valueOf(observedAnimal.getChildrenNumberAfterObservingStarts());
+            observedDescendants = valueOf(observedAnimal.getAllDescendantsNumber());
+            observedDeadDate = observedAnimal.getDeadDateString();
+        }
+        else {
+            observedCell = -1;
+            observedGenotype = null;
+            observedChildren = null;
+            observedDescendants = null;
+            observedDeadDate = null;
+        }
+    }
+
+    private void captureCell(AbstractMap map, int cell){
+        AnimalCellIndex animalCells = map.animalCells;
+        byte state = 0;
+        if (map.isPositionInJungle(cell % width, cell / width)) state |= jungleFlag;
+        if (map.isGrassOnCell(cell)) state |= grassFlag;
+
+        Animal theStrongestAnimal = animalCells.getTheStrongest(cell);
+        topEnergy[cell] = 0;
+        if (theStrongestAnimal != null){
+            state |= animalFlag;
+            topEnergy[cell] = theStrongestAnimal.getEnergy();
+        }
+        cellStates[cell] = state;
+    }
+
+    private void captureDominant(AbstractMap map, int cell){
+        AnimalCellIndex animalCells = map.animalCells;
+        for (int i = 0; i < animalCells.count(cell); i++){
+            if (map.hasDominantGenotype(animalCells.get(cell, i))){
+                cellStates[cell] |= dominantFlag;
+                return;
+            }
+        }
+    }
+
+    void update(AbstractMap map, DayStats stats, int[] changedCells){
+        for (int i = 0; i < staleCells.size(); i++){
+            captureCell(map, staleCells.get(i));
+            captureDominant(map, staleCells.get(i));
+        }
+        staleCells.clear();
+
+        for (int cell: changedCells){
+            captureCell(map, cell);
+            captureDominant(map, cell);
+        }
+
+        if (!dominantGenotype.equals(map.getDominantGenotype())){
+            dominantGenotype = List.copyOf(map.getDominantGenotype());
+            for (int cell = 0; cell < cellStates.length; cell++){
+                cellStates[cell] &= ~dominantFlag;
+                captureDominant(map, cell);
+            }
+        }
+        captureDetails(map, stats);
+    }
+
+    void markStale(int[] changedCells){
+        for (int cell: changedCells)
+            staleCells.add(cell);
+    }
+
+    public static MapFrame capture(AbstractMap map, DayStats stats){
+        return new MapFrame(map, stats);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public DayStats getStats() {
+        return stats;
+    }
+
+    public boolean hasFlag(int x, int y, byte flag){
+        return (cellStates[x + y * width] & flag) != 0;
+    }
+
+    public float getTopEnergy(int x, int y){
+        return topEnergy[x + y * width];
+    }
+
+    public List<Integer> getDominantGenotype() {
+        return dominantGenotype;
+    }
+
+    public int getObservedCell() {
+        return observedCell;
+    }
+
+    public boolean hasObservedAnimal(){
+        return observedGenotype != null;
+    }
+
+    public String getObservedGenotype() {
+        return observedGenotype;
+    }
+
+    public String getObservedChildren() {
+        return observedChildren;
+    }
+
+    public String getObservedDescendants() {
+        return observedDescendants;
+    }
+
+    public String getObservedDeadDate() {
+        return observedDeadDate;
+    }
+}
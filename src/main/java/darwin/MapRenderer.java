@@ -0,0 +1,130 @@
+package darwin;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+public class MapRenderer {
+    private final Canvas canvas = new Canvas();
+    private final int startEnergy;
+    private MapFrame frame;
+    private int observedCell = -1;
+    private boolean ifDominant = false;
+    private double cellWidth = 10;
+    private double cellHeight = 10;
+
+    public MapRenderer(int startEnergy){
+        this.startEnergy = startEnergy;
+    }
+
+    public Canvas getCanvas(){
+        return canvas;
+    }
+
+    public void setCellSize(double cellWidth, double cellHeight){
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        redraw();
+    }
+
+    public void draw(MapFrame frame, boolean ifDominant){
+        this.frame = frame;
+        this.observedCell = frame.getObservedCell();
+        this.ifDominant = ifDominant;
+        redraw();
+    }
+
+    public void drawChanges(MapFrame frame, IntArrayList changedCells){
+        MapFrame lastFrame = this.frame;
+        if (lastFrame == null || ifDominant || lastFrame.getWidth() != frame.getWidth()
+                || lastFrame.getHeight() != frame.getHeight()){
+            draw(frame, false);
+            return;
+        }
+
+        int lastObservedCell = observedCell;
+        this.frame = frame;
+        this.observedCell = frame.getObservedCell();
+        GraphicsContext context = canvas.getGraphicsContext2D();
+        double radius = Math.min(cellWidth / 2, cellHeight / 2);
+        for (int i = 0; i < changedCells.size(); i++)
+            drawCell(context, changedCells.get(i), radius);
+
+        if (lastObservedCell != -1) drawCell(context, lastObservedCell, radius);
+        if (observedCell != -1) drawCell(context, observedCell, radius);
+    }
+
+    private void drawCell(GraphicsContext context, int cell, double radius){
+        int x = cell % frame.getWidth();
+        int y = cell / frame.getWidth();
+
+        if (frame.hasFlag(x, y, MapFrame.grassFlag)) context.setFill(Color.LIME);
+        else if (frame.hasFlag(x, y, MapFrame.jungleFlag)) context.setFill(Color.GREEN);
+        else context.setFill(Color.LIGHTGREEN);
+        context.fillRect(x * cellWidth, y * cellHeight, cellWidth, cellHeight);
+
+        drawAnimal(context, x, y, radius);
+    }
+
+    private void drawAnimal(GraphicsContext context, int x, int y, double radius){
+        Color color = getAnimalColor(x, y);
+        if (color == null) return;
+
+        context.setFill(color);
+        context.fillOval(x * cellWidth + cellWidth / 2 - radius, y * cellHeight + cellHeight / 2 - radius,
+                2 * radius, 2 * radius);
+    }
+
+    public void redraw(){
+        if (frame == null) return;
+
+        int width = frame.getWidth();
+        int height = frame.getHeight();
+        canvas.setWidth(width * cellWidth);
+        canvas.setHeight(height * cellHeight);
+
+        GraphicsContext context = canvas.getGraphicsContext2D();
+        context.setFill(Color.LIGHTGREEN);
+        context.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        for (int y = 0; y < height; y++){
+            for (int x = 0; x < width; x++){
+                if (frame.hasFlag(x, y, MapFrame.grassFlag)) context.setFill(Color.LIME);
+                else if (frame.hasFlag(x, y, MapFrame.jungleFlag)) context.setFill(Color.GREEN);
+                else continue;
+
+                context.fillRect(x * cellWidth, y * cellHeight, cellWidth, cellHeight);
+            }
+        }
+
+        double radius = Math.min(cellWidth / 2, cellHeight / 2);
+        for (int y = 0; y < height; y++){
+            for (int x = 0; x < width; x++)
+                drawAnimal(context, x, y, radius);
+        }
+    }
+
+    private Color getAnimalColor(int x, int y){
+        if (frame.hasFlag(x, y, MapFrame.observedFlag)) return Color.BLUEVIOLET;
+        if (ifDominant && frame.hasFlag(x, y, MapFrame.dominantFlag)) return Color.RED;
+        if (frame.hasFlag(x, y, MapFrame.animalFlag))
+            return AbstractMapElement.energyToColor(frame.getTopEnergy(x, y), startEnergy);
+
+        return null;
+    }
+
+    public Vector2d getAnimalPositionAt(double canvasX, double canvasY){
+        if (frame == null) return null;
+
+        int x = (int) Math.floor(canvasX / cellWidth);
+        int y = (int) Math.floor(canvasY / cellHeight);
+        if (x < 0 || y < 0 || x >= frame.getWidth() || y >= frame.getHeight()) return null;
+        if (getAnimalColor(x, y) == null) return null;
+
+        return new Vector2d(x, y);
+    }
+
+    public boolean isShowingDominant(){
+        return ifDominant;
+    }
+}
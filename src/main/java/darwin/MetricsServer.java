@@ -0,0 +1,108 @@
+package darwin;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+public class MetricsServer implements AutoCloseable {
+    private static final double[] percentiles = {50, 90, 99};
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final List<TickMetrics> metrics = new CopyOnWriteArrayList<>();
+
+    public MetricsServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/metrics", this::handle);
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public void add(TickMetrics tickMetrics){
+        metrics.add(tickMetrics);
+    }
+
+    public void remove(TickMetrics tickMetrics){
+        metrics.remove(tickMetrics);
+    }
+
+    public int getPort(){
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] body = getText().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    public String getText(){
+        StringBuilder text = new StringBuilder();
+        appendCounter(text, "darwin_ticks_total", "counter", TickMetrics::getTicks);
+        appendCounter(text, "darwin_births_total", "counter", TickMetrics::getBirths);
+        appendCounter(text, "darwin_deaths_total", "counter", TickMetrics::getDeaths);
+        appendCounter(text, "darwin_moves_total", "counter", TickMetrics::getMoves);
+        appendCounter(text, "darwin_grass_eaten_total", "counter", TickMetrics::getGrassEaten);
+        appendCounter(text, "darwin_ticks_per_second", "gauge", TickMetrics::getTicksPerSecond);
+
+        text.append("# TYPE darwin_tick_seconds summary\n");
+        for (TickMetrics tickMetrics: metrics)
+            appendSummary(text, "darwin_tick_seconds", label(tickMetrics), tickMetrics.getTicksHistogram());
+
+        text.append("# TYPE darwin_phase_seconds summary\n");
+        for (TickMetrics tickMetrics: metrics){
+            for (int phase = 0; phase < TickMetrics.phaseNames.length; phase++)
+                appendSummary(text, "darwin_phase_seconds", label(tickMetrics) + ",phase=\""
+                        + TickMetrics.phaseNames[phase] + "\"", tickMetrics.getPhaseHistogram(phase));
+        }
+
+        return text.toString();
+    }
+
+    private void appendCounter(StringBuilder text, String name, String type,
+                               Function<TickMetrics, Number> value){
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        for (TickMetrics tickMetrics: metrics)
+            text.append(name).append('{').append(label(tickMetrics)).append("} ")
+                    .append(value.apply(tickMetrics)).append('\n');
+    }
+
+    private void appendSummary(StringBuilder text, String name, String labels, LatencyHistogram histogram){
+        for (double percentile: percentiles)
+            text.append(String.format(Locale.ROOT, "%s{%s,quantile=\"%s\"} %.9f\n", name, labels, percentile / 100,
+                    histogram.getPercentile(percentile) / 1e9));
+
+        text.append(String.format(Locale.ROOT, "%s_sum{%s} %.9f\n", name, labels, histogram.getSum() / 1e9));
+        text.append(name).append("_count{").append(labels).append("} ").append(histogram.getCount()).append('\n');
+    }
+
+    private static String label(TickMetrics tickMetrics){
+        String name = tickMetrics.getName().replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        return "simulation=\"" + name + "\"";
+    }
+
+    @Override
+    public void close(){
+        server.stop(0);
+        executor.shutdown();
+    }
+}
@@ -6,20 +6,44 @@ import java.util.Map;
 
 public class OptionParser {
     public static Map<String, Number> parseArguments(Map <String, TextField> menuTextFields) throws Exception {
+        Map<String, String> menuValues = new HashMap<>();
+
+        for (String optionName: menuTextFields.keySet())
+            menuValues.put(optionName, menuTextFields.get(optionName).getText());
+
+        return parseValues(menuValues);
+    }
+
+    public static Map<String, Number> parseValues(Map<String, String> menuValues) throws Exception {
         Map<String, Number> menuParsedMap = new HashMap<>();
 
-        for (String optionName: menuTextFields.keySet()){
+        for (String optionName: menuValues.keySet()){
             if (optionName.equals("Use magic born [yes/no]"))
-                menuParsedMap.put(optionName, parseMagicBorn(menuTextFields.get(optionName).getText()));
+                menuParsedMap.put(optionName, parseMagicBorn(menuValues.get(optionName)));
             else if (optionName.equals("Jungle ratio"))
-                menuParsedMap.put(optionName, parseJungleRatio(menuTextFields.get(optionName).getText()));
+                menuParsedMap.put(optionName, parseJungleRatio(menuValues.get(optionName)));
             else
-                menuParsedMap.put(optionName, parseIntegerValues(menuTextFields.get(optionName).getText()));
+                menuParsedMap.put(optionName, parseIntegerValues(menuValues.get(optionName)));
         }
 
         return menuParsedMap;
     }
 
+    public static Map<String,String> createDefaultMenuValues(){
+        Map<String,String> defaultMenuValues = new HashMap<>();
+        defaultMenuValues.put("Map height", "10");
+        defaultMenuValues.put("Map width", "10");
+        defaultMenuValues.put("Jungle ratio", "0.4");
+        defaultMenuValues.put("Grass energy", "30");
+        defaultMenuValues.put("Animal start energy", "200");
+        defaultMenuValues.put("Animal move energy", "5");
+        defaultMenuValues.put("Use magic born [yes/no]", "no");
+        defaultMenuValues.put("Start animals number", "15");
+        defaultMenuValues.put("Refresh time (in ms)", "300");
+
+        return defaultMenuValues;
+    }
+
     public static Number parseMagicBorn(String textFieldText) throws Exception {
         return switch (textFieldText.toLowerCase()){
             case "y", "yes" -> 1;
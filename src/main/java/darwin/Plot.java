@@ -3,7 +3,6 @@ package darwin;
 import javafx.scene.chart.LineChart;
 import javafx.scene.chart.NumberAxis;
 import javafx.scene.chart.XYChart;
-import java.util.ArrayList;
 import java.util.List;
 
 public class Plot {
@@ -12,7 +11,7 @@ public class Plot {
     private int firstDayInPlot = 0;
     private final NumberAxis xAxis = new NumberAxis();
     private final XYChart.Series<Number, Number> series = new XYChart.Series<>();
-    private final List<Number> allValues = new ArrayList<>();
+    private final TimeSeries allValues = new TimeSeries(false);
 
     public Plot(String seriesName, Number firstValueOfSeries){
         NumberAxis yAxis = new NumberAxis();
@@ -26,15 +25,24 @@ public class Plot {
     }
 
     public void updatePlot(int day, Number value){
-        series.getData().add(new XYChart.Data<>(day, value));
-        allValues.add(value);
-
-        if (series.getData().size() > maxPoints){
-            firstDayInPlot++;
-            series.getData().remove(0);
-            xAxis.setLowerBound(firstDayInPlot);
-            xAxis.setUpperBound(maxPoints+firstDayInPlot);
+        allValues.add(value.doubleValue());
+
+        if (series.getData().size() < maxPoints){
+            series.getData().add(new XYChart.Data<>(day, value));
+            return;
+        }
+
+        List<XYChart.Data<Number, Number>> points = series.getData();
+        for (int i = 0; i < points.size() - 1; i++){
+            points.get(i).setXValue(points.get(i + 1).getXValue());
+            points.get(i).setYValue(points.get(i + 1).getYValue());
         }
+        points.get(points.size() - 1).setXValue(day);
+        points.get(points.size() - 1).setYValue(value);
+
+        firstDayInPlot = series.getData().get(0).getXValue().intValue();
+        xAxis.setLowerBound(firstDayInPlot);
+        xAxis.setUpperBound(maxPoints+firstDayInPlot);
     }
 
     public LineChart<Number, Number> getLineChart() {
@@ -42,10 +50,14 @@ public class Plot {
     }
 
     public List<Number> getAllValues() {
+        return allValues.asList();
+    }
+
+    public TimeSeries getTimeSeries() {
         return allValues;
     }
 
     public Number getSeriesAverage(){
-        return allValues.stream().mapToDouble(Number::doubleValue).sum() / allValues.size();
+        return allValues.getMean();
     }
 }
@@ -0,0 +1,168 @@
+package darwin;
+
+import java.util.Arrays;
+
+public class Population {
+    private static final int initialCapacity = 64;
+    private int size = 0;
+    private int nextId = 0;
+    private Animal[] animals = new Animal[initialCapacity];
+    private int[] ids = new int[initialCapacity];
+    private float[] energy = new float[initialCapacity];
+    private int[] cells = new int[initialCapacity];
+    private byte[] orient = new byte[initialCapacity];
+    private int[] birthDay = new int[initialCapacity];
+    private int[] lifetime = new int[initialCapacity];
+    private int[] childrenNumber = new int[initialCapacity];
+    private boolean[] alive = new boolean[initialCapacity];
+    private long[] genesLow = new long[initialCapacity];
+    private long[] genesHigh = new long[initialCapacity];
+
+    public int add(Animal animal){
+        return add(animal, nextId++);
+    }
+
+    public int add(Animal animal, int id){
+        if (size == animals.length) grow();
+
+        int slot = size;
+        animals[slot] = animal;
+        ids[slot] = id;
+        alive[slot] = animal.isAlive();
+        size++;
+        animal.attach(this, slot, id);
+        return slot;
+    }
+
+    public void remove(Animal animal){
+        int slot = animal.getSlot();
+        int lastSlot = size - 1;
+        animal.detach();
+
+        if (slot != lastSlot){
+            animals[slot] = animals[lastSlot];
+            ids[slot] = ids[lastSlot];
+            energy[slot] = energy[lastSlot];
+            cells[slot] = cells[lastSlot];
+            orient[slot] = orient[lastSlot];
+            birthDay[slot] = birthDay[lastSlot];
+            lifetime[slot] = lifetime[lastSlot];
+            childrenNumber[slot] = childrenNumber[lastSlot];
+            alive[slot] = alive[lastSlot];
+            genesLow[slot] = genesLow[lastSlot];
+            genesHigh[slot] = genesHigh[lastSlot];
+            animals[slot].setSlot(slot);
+        }
+
+        animals[lastSlot] = null;
+        size--;
+    }
+
+    private void grow(){
+        int capacity = animals.length * 2;
+        animals = Arrays.copyOf(animals, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        energy = Arrays.copyOf(energy, capacity);
+        cells = Arrays.copyOf(cells, capacity);
+        orient = Arrays.copyOf(orient, capacity);
+        birthDay = Arrays.copyOf(birthDay, capacity);
+        lifetime = Arrays.copyOf(lifetime, capacity);
+        childrenNumber = Arrays.copyOf(childrenNumber, capacity);
+        alive = Arrays.copyOf(alive, capacity);
+        genesLow = Arrays.copyOf(genesLow, capacity);
+        genesHigh = Arrays.copyOf(genesHigh, capacity);
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public Animal getAnimal(int slot){
+        return animals[slot];
+    }
+
+    public int getNextId(){
+        return nextId;
+    }
+
+    public void setNextId(int nextId){
+        this.nextId = nextId;
+    }
+
+    public int getId(int slot){
+        return ids[slot];
+    }
+
+    public float getEnergy(int slot){
+        return energy[slot];
+    }
+
+    public void setEnergy(int slot, float energy){
+        this.energy[slot] = energy;
+    }
+
+    public int getCell(int slot){
+        return cells[slot];
+    }
+
+    public void setCell(int slot, int cell){
+        cells[slot] = cell;
+    }
+
+    public int getOrient(int slot){
+        return orient[slot];
+    }
+
+    public void setOrient(int slot, int orient){
+        this.orient[slot] = (byte) orient;
+    }
+
+    public int getBirthDay(int slot){
+        return birthDay[slot];
+    }
+
+    public void setBirthDay(int slot, int birthDay){
+        this.birthDay[slot] = birthDay;
+    }
+
+    public int getLifetime(int slot){
+        return lifetime[slot];
+    }
+
+    public void setLifetime(int slot, int lifetime){
+        this.lifetime[slot] = lifetime;
+    }
+
+    public int getChildrenNumber(int slot){
+        return childrenNumber[slot];
+    }
+
+    public void setChildrenNumber(int slot, int childrenNumber){
+        this.childrenNumber[slot] = childrenNumber;
+    }
+
+    public boolean isAlive(int slot){
+        return alive[slot];
+    }
+
+    public void setAlive(int slot, boolean alive){
+        this.alive[slot] = alive;
+    }
+
+    public int getGene(int slot, int index){
+        return Genome.getGene(genesLow[slot], genesHigh[slot], index);
+    }
+
+    public long getGenesLow(int slot){
+        return genesLow[slot];
+    }
+
+    public long getGenesHigh(int slot){
+        return genesHigh[slot];
+    }
+
+    public void setGenes(int slot, long genesLow, long genesHigh){
+        this.genesLow[slot] = genesLow;
+        this.genesHigh[slot] = genesHigh;
+    }
+}
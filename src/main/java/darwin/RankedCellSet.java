@@ -0,0 +1,109 @@
+package darwin;
+
+// Free cells kept in ascending order so restore can rebuild them from the map. Picking the rank-th cell descends
+// a Fenwick tree of per-word counts, so a uniform random pick costs O(log(cells / 64)); add and remove cost the same.
+public class RankedCellSet {
+    private final long[] words;
+    private final int[] wordCounts;
+    private final int topStep;
+    private int size = 0;
+
+    public RankedCellSet(int cellsNumber){
+        this.words = new long[(cellsNumber + 63) >>> 6];
+        this.wordCounts = new int[words.length + 1];
+        this.topStep = (words.length == 0) ? 0 : Integer.highestOneBit(words.length);
+    }
+
+    public boolean add(int cell){
+        long bit = 1L << cell;
+        int word = cell >>> 6;
+        if ((words[word] & bit) != 0) return false;
+
+        words[word] |= bit;
+        updateCount(word, 1);
+        size++;
+        return true;
+    }
+
+    public boolean remove(int cell){
+        long bit = 1L << cell;
+        int word = cell >>> 6;
+        if ((words[word] & bit) == 0) return false;
+
+        words[word] &= ~bit;
+        updateCount(word, -1);
+        size--;
+        return true;
+    }
+
+    private void updateCount(int word, int change){
+        for (int node = word + 1; node < wordCounts.length; node += node & -node)
+            wordCounts[node] += change;
+    }
+
+    public void addRange(int fromCell, int toCell){
+        for (int cell = fromCell; cell < toCell && (cell & 63) != 0; cell++)
+            add(cell);
+
+        int word = (fromCell + 63) >>> 6;
+        for (; (word + 1) << 6 <= toCell; word++){
+            int added = 64 - Long.bitCount(words[word]);
+            words[word] = -1L;
+            updateCount(word, added);
+            size += added;
+        }
+
+        for (int cell = Math.max(fromCell, word << 6); cell < toCell; cell++)
+            add(cell);
+    }
+
+    public boolean contains(int cell){
+        return (words[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    public int get(int rank){
+        int word = 0;
+        for (int step = topStep; step > 0; step >>>= 1){
+            int node = word + step;
+            if (node < wordCounts.length && rank >= wordCounts[node]){
+                word = node;
+                rank -= wordCounts[node];
+            }
+        }
+
+        long bits = words[word];
+        int offset = 0;
+        for (int width = 32; width > 0; width >>>= 1){
+            int lowCount = Long.bitCount(bits & ((1L << width) - 1));
+            if (rank >= lowCount){
+                rank -= lowCount;
+                bits >>>= width;
+                offset += width;
+            }
+        }
+
+        return (word << 6) + offset;
+    }
+
+    public int[] toArray(){
+        int[] cells = new int[size];
+        int index = 0;
+        for (int word = 0; word < words.length; word++){
+            long bits = words[word];
+            while (bits != 0){
+                cells[index++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+
+        return cells;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public boolean isEmpty(){
+        return size == 0;
+    }
+}
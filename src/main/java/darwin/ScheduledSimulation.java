@@ -0,0 +1,158 @@
+package darwin;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public class ScheduledSimulation {
+    private static final long timeSliceNanos = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final int maxCatchUpTicks = 100;
+    private final SimulationEngine engine;
+    private final ScheduledExecutorService executor;
+    private volatile TickScheduler.Mode mode = TickScheduler.Mode.SINGLE_STEP;
+    private long periodNanos = 0;
+    private long nextTickTime = 0;
+    private volatile boolean paused = true;
+    private boolean ticking = false;
+    private int requestedSteps = 0;
+    private ScheduledFuture<?> pendingTicks;
+
+    public ScheduledSimulation(SimulationEngine engine, ScheduledExecutorService executor){
+        this.engine = engine;
+        this.executor = executor;
+    }
+
+    public synchronized void setFixedRate(long periodMillis){
+        if (periodMillis <= 0) setAsFastAsPossible();
+        else setMode(TickScheduler.Mode.FIXED_RATE, TimeUnit.MILLISECONDS.toNanos(periodMillis));
+    }
+
+    public synchronized void setTargetTicksPerSecond(double ticksPerSecond){
+        if (ticksPerSecond <= 0) setAsFastAsPossible();
+        else setMode(TickScheduler.Mode.TARGET_TICKS_PER_SECOND, Math.max(1, (long) (1e9 / ticksPerSecond)));
+    }
+
+    public synchronized void setAsFastAsPossible(){
+        setMode(TickScheduler.Mode.AS_FAST_AS_POSSIBLE, 0);
+    }
+
+    public synchronized void setSingleStep(){
+        setMode(TickScheduler.Mode.SINGLE_STEP, 0);
+    }
+
+    private void setMode(TickScheduler.Mode mode, long periodNanos){
+        this.mode = mode;
+        this.periodNanos = periodNanos;
+        this.nextTickTime = System.nanoTime() + periodNanos;
+        reschedule();
+    }
+
+    public synchronized void setPaused(boolean paused){
+        this.paused = paused;
+        engine.setIfRunning(!paused);
+        nextTickTime = System.nanoTime();
+        reschedule();
+    }
+
+    public synchronized void step(){
+        if (!isStepping()) return;
+
+        requestedSteps++;
+        reschedule();
+    }
+
+    public synchronized void cancel(){
+        engine.finished = true;
+        if (pendingTicks != null) pendingTicks.cancel(false);
+        pendingTicks = null;
+    }
+
+    public synchronized boolean isPaused(){
+        return paused;
+    }
+
+    public synchronized boolean isIdle(){
+        return paused && !ticking && requestedSteps == 0 && pendingTicks == null;
+    }
+
+    public synchronized TickScheduler.Mode getMode(){
+        return mode;
+    }
+
+    public SimulationEngine getEngine(){
+        return engine;
+    }
+
+    private boolean isStepping(){
+        return paused || mode == TickScheduler.Mode.SINGLE_STEP;
+    }
+
+    private void reschedule(){
+        if (ticking) return;
+        if (pendingTicks != null) pendingTicks.cancel(false);
+        pendingTicks = null;
+
+        if (!engine.isActive()) return;
+        if (isStepping() && requestedSteps == 0) return;
+
+        long delay = (isStepping() || mode == TickScheduler.Mode.AS_FAST_AS_POSSIBLE) ? 0 :
+                Math.max(0, nextTickTime - System.nanoTime());
+        pendingTicks = executor.schedule(this::runTicks, delay, TimeUnit.NANOSECONDS);
+    }
+
+    private void runTicks(){
+        int ticksNumber;
+        TickScheduler.Mode currentMode;
+
+        synchronized (this){
+            if (ticking) return;
+            ticking = true;
+            pendingTicks = null;
+            currentMode = isStepping() ? TickScheduler.Mode.SINGLE_STEP : mode;
+            ticksNumber = countDueTicks(currentMode);
+        }
+
+        try {
+            if (currentMode == TickScheduler.Mode.AS_FAST_AS_POSSIBLE){
+                long sliceEnd = System.nanoTime() + timeSliceNanos;
+                do engine.tick();
+                while (engine.isActive() && System.nanoTime() < sliceEnd && !isStepping());
+            }
+            else {
+                for (int i = 0; i < ticksNumber && engine.isActive(); i++)
+                    engine.tick();
+            }
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            engine.finished = true;
+        } finally {
+            synchronized (this){
+                ticking = false;
+                reschedule();
+            }
+        }
+    }
+
+    private int countDueTicks(TickScheduler.Mode currentMode){
+        long now = System.nanoTime();
+
+        switch (currentMode){
+            case SINGLE_STEP:
+                requestedSteps = Math.max(0, requestedSteps - 1);
+                return 1;
+            case FIXED_RATE:
+                nextTickTime = Math.max(nextTickTime + periodNanos, now);
+                return 1;
+            case TARGET_TICKS_PER_SECOND:
+                int ticksNumber = 0;
+                while (nextTickTime <= now && ticksNumber < maxCatchUpTicks){
+                    nextTickTime += periodNanos;
+                    ticksNumber++;
+                }
+                if (nextTickTime <= now) nextTickTime = now + periodNanos;
+                return ticksNumber;
+            default:
+                return 0;
+        }
+    }
+}
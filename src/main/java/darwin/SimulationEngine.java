@@ -1,120 +1,458 @@
 package darwin;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.stream.Collectors;
 
 public class SimulationEngine implements Runnable{
     private final int moveEnergy;
     private final int grassEnergy;
     private final float minReproductionEnergy;
     private final int startEnergy;
+    private final float jungleRatio;
     private final boolean ifMagicBorn;
     private final int moveDelay;
     private final AbstractMap map;
     private int currAnimalsNumber;
     private final IAppObserver observer;
     private int magicBornCounter = 0;
-    boolean ifRunning = false;
-    boolean finished = false;
+    volatile boolean ifRunning = false;
+    volatile boolean finished = false;
     private int currDay = 0;
     private int deadAnimalsCounter = 0;
     private float averageLifetime = 0;
-    private final Set<Animal> allAnimals = new HashSet<>();
-    private final Set<Animal> deadAnimals = new HashSet<>();
-    private final Set<Vector2d> positionsWithAnimalAndGrass = new HashSet<>();
+    private long movesCounter = 0;
+    private final Population population = new Population();
+    private final SimulationRandom random;
+    private final List<Animal> deadAnimals = new ArrayList<>();
+    private final IndexedCellSet cellsWithAnimalAndGrass;
+    private TickPartition partition;
+    private IntArrayList[] deadRecords = new IntArrayList[0];
+    private IntArrayList[][] leavingRecords = new IntArrayList[0][];
+    private IntArrayList[][] arrivingRecords = new IntArrayList[0][];
+    private IntArrayList[] touchedCells;
+    private IntArrayList[] movedCells;
+    private IntArrayList[] crowdedChangeRecords;
+    private IntArrayList[] freeChangeRecords;
+    private IntArrayList[] grassCellRecords;
+    private List<List<Animal>> birthRecords;
+    private final IntArrayList sortedCells = new IntArrayList();
+    private final int[] cellStamps;
+    private int currStamp = 0;
+    private DayEvents events = null;
+    private EventLogWriter eventLog = null;
+    private EventLogReader replay = null;
+    private final TickMetrics metrics = new TickMetrics();
 
     public SimulationEngine(int mapWidth, int mapHeight, float jungleRatio, int startingAnimalsNumber, int startEnergy,
                             int moveEnergy, int grassEnergy, int moveDelay, boolean ifMagicBorn, boolean ifWallMap,
                             IAppObserver observer){
+        this(mapWidth, mapHeight, jungleRatio, startingAnimalsNumber, startEnergy, moveEnergy, grassEnergy, moveDelay,
+                ifMagicBorn, ifWallMap, observer, ThreadLocalRandom.current().nextLong());
+    }
+
+    public SimulationEngine(int mapWidth, int mapHeight, float jungleRatio, int startingAnimalsNumber, int startEnergy,
+                            int moveEnergy, int grassEnergy, int moveDelay, boolean ifMagicBorn, boolean ifWallMap,
+                            IAppObserver observer, long seed){
+        this.random = new SimulationRandom(seed);
         if (ifWallMap)  this.map = new WallMap(mapWidth, mapHeight, jungleRatio);
         else this.map = new SnakeMap(mapWidth, mapHeight, jungleRatio);
         this.moveEnergy = moveEnergy;
         this.grassEnergy = grassEnergy;
         this.startEnergy = startEnergy;
+        this.jungleRatio = jungleRatio;
         this.minReproductionEnergy = (float) startEnergy / 2;
         this.observer = observer;
         this.createFirstAnimals(startingAnimalsNumber, startEnergy);
+        this.map.cacheDominantGenotype();
+        this.map.commitChangedCells();
         this.moveDelay = moveDelay;
         this.currAnimalsNumber = startingAnimalsNumber;
         this.ifMagicBorn = ifMagicBorn;
+        this.cellsWithAnimalAndGrass = new IndexedCellSet(mapWidth * mapHeight);
+        this.cellStamps = new int[mapWidth * mapHeight];
+        setThreadsNumber(1);
+    }
+
+    public SimulationEngine(Checkpoint checkpoint, IAppObserver observer){
+        this.random = new SimulationRandom(checkpoint.seed);
+        if (checkpoint.ifWallMap) this.map = new WallMap(checkpoint.width, checkpoint.height, checkpoint.jungleRatio);
+        else this.map = new SnakeMap(checkpoint.width, checkpoint.height, checkpoint.jungleRatio);
+        this.moveEnergy = checkpoint.moveEnergy;
+        this.grassEnergy = checkpoint.grassEnergy;
+        this.startEnergy = checkpoint.startEnergy;
+        this.jungleRatio = checkpoint.jungleRatio;
+        this.minReproductionEnergy = (float) startEnergy / 2;
+        this.observer = observer;
+        this.moveDelay = checkpoint.moveDelay;
+        this.ifMagicBorn = checkpoint.ifMagicBorn;
+        this.currDay = checkpoint.currDay;
+        this.currAnimalsNumber = checkpoint.currAnimalsNumber;
+        this.magicBornCounter = checkpoint.magicBornCounter;
+        this.deadAnimalsCounter = checkpoint.deadAnimalsCounter;
+        this.averageLifetime = checkpoint.averageLifetime;
+        this.movesCounter = checkpoint.movesCounter;
+        this.cellsWithAnimalAndGrass = new IndexedCellSet(checkpoint.width * checkpoint.height);
+        this.cellStamps = new int[checkpoint.width * checkpoint.height];
+        restoreState(checkpoint);
+        this.map.cacheDominantGenotype();
+        setThreadsNumber(1);
+    }
+
+    private void restoreState(Checkpoint checkpoint){
+        for (int slot = 0; slot < checkpoint.ids.length; slot++){
+            Animal animal = new Animal(checkpoint.cells[slot], map, map,
+                    checkpoint.birthDays[slot], checkpoint.energies[slot],
+                    MapDirections.getMapDirectionFromDirectionNumber(checkpoint.orients[slot]),
+                    checkpoint.lifetimes[slot], checkpoint.childrenNumbers[slot], checkpoint.alive[slot] == 1,
+                    checkpoint.genesLow[slot], checkpoint.genesHigh[slot]);
+            population.add(animal, checkpoint.ids[slot]);
+            if (!animal.isAlive()) deadAnimals.add(animal);
+        }
+        population.setNextId(checkpoint.nextId);
+
+        int[] animalCells = checkpoint.animalCells;
+        for (int i = 0; i < animalCells.length; i += animalCells[i + 1] + 2){
+            int cell = animalCells[i];
+            for (int j = 0; j < animalCells[i + 1]; j++)
+                map.animalCells.appendUntracked(cell, population.getAnimal(animalCells[i + 2 + j]));
+            map.animalCells.refreshCrowded(cell);
+            map.getFreePositionsForCell(cell).remove(cell);
+        }
+
+        for (int cell: checkpoint.grassCells){
+            map.grassCells.add(cell);
+            map.getFreePositionsForCell(cell).remove(cell);
+        }
+
+        for (int rank = 0; rank < checkpoint.genotypeCounts.length; rank++)
+            map.genotypeOccurrences.restoreEntry(checkpoint.genotypesLow[rank], checkpoint.genotypesHigh[rank],
+                    checkpoint.genotypeCounts[rank]);
+    }
+
+    public Checkpoint createCheckpoint(){
+        Checkpoint checkpoint = new Checkpoint();
+        checkpoint.ifWallMap = map instanceof WallMap;
+        checkpoint.width = map.getWidth();
+        checkpoint.height = map.getHeight();
+        checkpoint.jungleRatio = jungleRatio;
+        checkpoint.startEnergy = startEnergy;
+        checkpoint.moveEnergy = moveEnergy;
+        checkpoint.grassEnergy = grassEnergy;
+        checkpoint.moveDelay = moveDelay;
+        checkpoint.ifMagicBorn = ifMagicBorn;
+        checkpoint.seed = random.getSeed();
+        checkpoint.currDay = currDay;
+        checkpoint.currAnimalsNumber = currAnimalsNumber;
+        checkpoint.magicBornCounter = magicBornCounter;
+        checkpoint.deadAnimalsCounter = deadAnimalsCounter;
+        checkpoint.averageLifetime = averageLifetime;
+        checkpoint.movesCounter = movesCounter;
+        checkpoint.nextId = population.getNextId();
+
+        int size = population.size();
+        checkpoint.ids = new int[size];
+        checkpoint.energies = new float[size];
+        checkpoint.cells = new int[size];
+        checkpoint.orients = new byte[size];
+        checkpoint.birthDays = new int[size];
+        checkpoint.lifetimes = new int[size];
+        checkpoint.childrenNumbers = new int[size];
+        checkpoint.alive = new byte[size];
+        checkpoint.genesLow = new long[size];
+        checkpoint.genesHigh = new long[size];
+        IntArrayList animalCells = new IntArrayList();
+        currStamp++;
+
+        for (int slot = 0; slot < size; slot++){
+            int cell = population.getCell(slot);
+            checkpoint.ids[slot] = population.getId(slot);
+            checkpoint.energies[slot] = population.getEnergy(slot);
+            checkpoint.cells[slot] = cell;
+            checkpoint.orients[slot] = (byte) population.getOrient(slot);
+            checkpoint.birthDays[slot] = population.getBirthDay(slot);
+            checkpoint.lifetimes[slot] = population.getLifetime(slot);
+            checkpoint.childrenNumbers[slot] = population.getChildrenNumber(slot);
+            checkpoint.alive[slot] = (byte) (population.isAlive(slot) ? 1 : 0);
+            checkpoint.genesLow[slot] = population.getGenesLow(slot);
+            checkpoint.genesHigh[slot] = population.getGenesHigh(slot);
+
+            if (cellStamps[cell] != currStamp){
+                cellStamps[cell] = currStamp;
+                animalCells.add(cell);
+                animalCells.add(map.animalCells.count(cell));
+                for (int i = 0; i < map.animalCells.count(cell); i++)
+                    animalCells.add(map.animalCells.get(cell, i).getSlot());
+            }
+        }
+        checkpoint.animalCells = animalCells.toArray();
+
+        checkpoint.grassCells = map.grassCells.toArray();
+
+        GenotypeTracker genotypes = map.genotypeOccurrences;
+        checkpoint.genotypesLow = new long[genotypes.size()];
+        checkpoint.genotypesHigh = new long[genotypes.size()];
+        checkpoint.genotypeCounts = new int[genotypes.size()];
+        for (int rank = 0; rank < genotypes.size(); rank++){
+            checkpoint.genotypesLow[rank] = genotypes.getGenesLow(rank);
+            checkpoint.genotypesHigh[rank] = genotypes.getGenesHigh(rank);
+            checkpoint.genotypeCounts[rank] = genotypes.getCount(rank);
+        }
+
+        return checkpoint;
+    }
+
+    public void setThreadsNumber(int threadsNumber){
+        if (partition != null) partition.shutdown();
+
+        partition = new TickPartition(map.getWidth(), map.getHeight(), threadsNumber);
+        touchedCells = new IntArrayList[partition.getStripesNumber()];
+        movedCells = new IntArrayList[partition.getStripesNumber()];
+        crowdedChangeRecords = new IntArrayList[partition.getStripesNumber()];
+        freeChangeRecords = new IntArrayList[partition.getStripesNumber()];
+        grassCellRecords = new IntArrayList[partition.getStripesNumber()];
+        birthRecords = new ArrayList<>();
+        for (int stripe = 0; stripe < partition.getStripesNumber(); stripe++){
+            touchedCells[stripe] = new IntArrayList();
+            movedCells[stripe] = new IntArrayList();
+            crowdedChangeRecords[stripe] = new IntArrayList();
+            freeChangeRecords[stripe] = new IntArrayList();
+            grassCellRecords[stripe] = new IntArrayList();
+            birthRecords.add(new ArrayList<>());
+        }
+
+        deadRecords = new IntArrayList[0];
+        leavingRecords = new IntArrayList[0][];
+        arrivingRecords = new IntArrayList[0][];
     }
 
     @Override
     public void run() {
-        while(allAnimals.size() > 0 && !finished){
-            waitForStartButton();
-            deleteDeadAnimals();
-            moveEachAnimal();
-            eatGrasses();
-            animalReproduction();
-            map.grassGrowing(grassEnergy);
-            updateMap();
-        }
-    }
-
-    public void waitForStartButton(){
-        synchronized (this){
-            while (!ifRunning){
-                try {
-                    wait();
-                }catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
+        while(isActive())
+            tick();
+
+        partition.shutdown();
+    }
+
+    public void tick(){
+        metrics.startTick(currDay + 1);
+        if (replay != null){
+            replayNextDay();
+            metrics.endTick(currAnimalsNumber, map.getGrassNumber());
+            return;
+        }
+
+        if (events != null) events.clear(currDay + 1);
+        deleteDeadAnimals();
+        metrics.endPhase(TickMetrics.deleteDeadPhase);
+        moveEachAnimal();
+        metrics.endPhase(TickMetrics.movePhase);
+        eatGrasses();
+        metrics.endPhase(TickMetrics.eatPhase);
+        animalReproduction();
+        metrics.endPhase(TickMetrics.reproducePhase);
+        map.grassGrowing(random.setStream(SimulationRandom.grassStream, currDay, 0));
+        metrics.endPhase(TickMetrics.grassGrowthPhase);
+        updateMap();
+        metrics.endPhase(TickMetrics.observerPhase);
+        if (eventLog != null) logDay();
+        metrics.endTick(currAnimalsNumber, map.getGrassNumber());
+    }
+
+    public boolean isActive(){
+        return population.size() > 0 && !finished && (replay == null || replay.hasDay(currDay + 1));
+    }
+
+    public void setEventLog(EventLogWriter eventLog) throws IOException {
+        this.eventLog = eventLog;
+        this.events = new DayEvents();
+        eventLog.writeKeyframe(createCheckpoint());
+    }
+
+    private void logDay(){
+        for (int i = 0; i < map.grownGrassCells.size(); i++)
+            events.addGrass(map.grownGrassCells.get(i));
+
+        try {
+            eventLog.writeDay(events);
+            if (eventLog.isKeyframeDay(currDay)) eventLog.writeKeyframe(createCheckpoint());
+        } catch (IOException e) {
+            e.printStackTrace();
+            eventLog = null;
+            events = null;
+        }
+    }
+
+    void setReplay(EventLogReader replay){
+        this.replay = replay;
+        this.events = new DayEvents();
+    }
+
+    void fastForward(int day) throws IOException {
+        while (currDay < day){
+            applyDayEvents(replay.readDay(currDay + 1, events));
+            currDay++;
+        }
+
+        map.cacheDominantGenotype();
+        map.commitChangedCells();
+    }
+
+    private void replayNextDay(){
+        try {
+            applyDayEvents(replay.readDay(currDay + 1, events));
+        } catch (IOException e) {
+            e.printStackTrace();
+            finished = true;
+            return;
+        }
+
+        updateMap();
+    }
+
+    private void applyDayEvents(DayEvents events){
+        deleteDeadAnimals();
+
+        for (int slot = 0; slot < events.movesNumber; slot++){
+            Animal animal = population.getAnimal(slot);
+            if (events.moveCodes[slot] == DayEvents.deathCode){
+                animal.setAsDead();
+                deadAnimals.add(animal);
+            }
+            else
+                animal.move(moveEnergy, events.moveCodes[slot]);
+        }
+        movesCounter += population.size() - deadAnimals.size();
+        metrics.addMoves(population.size() - deadAnimals.size());
+        metrics.addGrassEaten(events.eatenCells.size());
+        metrics.addBirths(events.getBirthsNumber() + events.magicBirths.size() / 2);
+        if (!deadAnimals.isEmpty())
+            DeathsEvent.commit(currDay + 1, deadAnimals.size(), population.size() - deadAnimals.size());
+        if (events.getBirthsNumber() > 0)
+            BirthsEvent.commit(currDay + 1, events.getBirthsNumber(), population.size() + events.getBirthsNumber()
+                    - deadAnimals.size());
+
+        for (int i = 0; i < events.eatenCells.size(); i++){
+            if (events.eaterSlots.get(i) != -1){
+                Animal eater = population.getAnimal(events.eaterSlots.get(i));
+                eater.setEnergy(eater.getEnergy() + grassEnergy);
             }
+            map.removeGrass(events.eatenCells.get(i));
+        }
+
+        for (int birth = 0; birth < events.getBirthsNumber(); birth++){
+            Animal dad = population.getAnimal(events.birthParents.get(2 * birth));
+            Animal mom = population.getAnimal(events.birthParents.get(2 * birth + 1));
+            givingBirth(dad, mom, new Animal(dad, mom, map, map, currDay, events.birthOrients.get(birth),
+                    events.birthGenes[2 * birth], events.birthGenes[2 * birth + 1]));
+        }
+
+        if (events.magicBirths.size() > 0) magicBornCounter++;
+        for (int i = 0; i < events.magicBirths.size(); i += 2){
+            Animal magicBabyAnimal = new Animal(map.animalCells.toPosition(events.magicBirths.get(i + 1)), map,
+                    population.getAnimal(events.magicBirths.get(i)), startEnergy, map, currDay);
+            population.add(magicBabyAnimal);
+            map.placeAnimal(magicBabyAnimal);
+            currAnimalsNumber++;
         }
+
+        for (int i = 0; i < events.grassCells.size(); i++)
+            map.placeGrass(events.grassCells.get(i));
     }
 
     public void magicBorn(){
-        List<Animal> parents = allAnimals.stream().
-                filter(a -> !deadAnimals.contains(a))
-                .collect(Collectors.toCollection(ArrayList::new));
-
-        if (parents.size() != 5) return;
+        if (population.size() - deadAnimals.size() != 5) return;
+
+        MagicBornEvent event = new MagicBornEvent();
+        event.begin();
+        List<Animal> parents = new ArrayList<>();
+        for (int slot = 0; slot < population.size(); slot++){
+            if (population.isAlive(slot))
+                parents.add(population.getAnimal(slot));
+        }
 
         magicBornCounter++;
-        List<Vector2d> positionsWithoutAnimals = map.getPositionsWithoutAnimals();
-        magicReproduction(positionsWithoutAnimals, parents);
+        random.setStream(SimulationRandom.magicBornStream, currDay, 0);
+        IntArrayList cellsWithoutAnimals = map.getCellsWithoutAnimals();
+        int freeFieldsNumber = cellsWithoutAnimals.size();
+        magicReproduction(cellsWithoutAnimals, parents);
+
+        if (event.shouldCommit()){
+            event.day = currDay + 1;
+            event.magicBornNumber = magicBornCounter;
+            event.parentsNumber = parents.size();
+            event.freeFieldsNumber = freeFieldsNumber;
+            event.commit();
+        }
     }
 
-    protected void magicReproduction(List<Vector2d> freePositions, List<Animal> parents){
+    protected void magicReproduction(IntArrayList freeCells, List<Animal> parents){
         for (Animal parent: parents){
-            int randomNumber = ThreadLocalRandom.current().nextInt(0, freePositions.size());
-            Animal magicBabyAnimal = new Animal(freePositions.get(randomNumber), map, parent, startEnergy,
-                    map, currDay);
-            allAnimals.add(magicBabyAnimal);
-            map.placeElement(magicBabyAnimal);
+            int randomNumber = random.nextInt(freeCells.size());
+            if (events != null)
+                events.addMagicBirth(parent.getSlot(), freeCells.get(randomNumber));
+            Animal magicBabyAnimal = new Animal(map.animalCells.toPosition(freeCells.get(randomNumber)), map, parent,
+                    startEnergy, map, currDay);
+            population.add(magicBabyAnimal);
+            map.placeAnimal(magicBabyAnimal);
             currAnimalsNumber++;
-            freePositions.remove(randomNumber);
+            metrics.addBirths(1);
+            freeCells.remove(randomNumber);
             }
         }
 
     public void animalReproduction(){
-        Map<Vector2d, List<Animal>> positionsByAnimals = map.getPositionsByAnimalsMap(2,
-                minReproductionEnergy);
-
-        positionsByAnimals.forEach((k, v) -> {
-            List<Animal> aliveAnimals = v.stream()
-                    .filter(e -> !deadAnimals.contains(e))
-                    .sorted((a1, a2) -> Float.compare(a1.getEnergy(), a2.getEnergy()))
-                    .collect(Collectors.toCollection(ArrayList::new));
-
-            if (aliveAnimals.size() >= 2){
-                givingBirth(aliveAnimals);
+        collectSortedCells(map.animalCells.getCrowdedCells());
+        partition.forEach(partition.getStripesNumber(), this::reproduceInStripe);
+
+        int birthsNumber = 0;
+        for (List<Animal> births: birthRecords){
+            metrics.addBirths(births.size() / 3);
+            birthsNumber += births.size() / 3;
+            for (int i = 0; i < births.size(); i += 3){
+                if (events != null) events.addBirth(births.get(i).getSlot(), births.get(i + 1).getSlot(),
+                        births.get(i + 2).getOrientNumber(), births.get(i + 2).getGenesLow(),
+                        births.get(i + 2).getGenesHigh());
+                givingBirth(births.get(i), births.get(i + 1), births.get(i + 2));
             }
-        });
+        }
 
+        if (birthsNumber > 0) BirthsEvent.commit(currDay + 1, birthsNumber, population.size() - deadAnimals.size());
         if (ifMagicBorn && magicBornCounter < 3) magicBorn();
     }
 
-    private void givingBirth(List<Animal> aliveAnimals) {
-        Collections.reverse(aliveAnimals);
-        Animal dad = aliveAnimals.get(0);
-        Animal mom = aliveAnimals.get(1);
-        Animal child = new Animal(dad, mom, map, map, currDay);
+    private void reproduceInStripe(int stripe){
+        List<Animal> births = birthRecords.get(stripe);
+        SimulationRandom cellRandom = new SimulationRandom(random.getSeed());
+        births.clear();
+
+        int end = partition.getStripeStart(sortedCells, stripe + 1);
+        for (int i = partition.getStripeStart(sortedCells, stripe); i < end; i++){
+            int cell = sortedCells.get(i);
+            Animal dad = null;
+            Animal mom = null;
 
-        allAnimals.add(child);
-        map.placeElement(child);
+            for (int j = 0; j < map.animalCells.count(cell) && mom == null; j++){
+                Animal animal = map.animalCells.get(cell, j);
+                if (animal.getEnergy() < minReproductionEnergy) break;
+                if (!animal.isAlive()) continue;
+
+                if (dad == null) dad = animal;
+                else mom = animal;
+            }
+
+            if (mom != null){
+                births.add(dad);
+                births.add(mom);
+                births.add(new Animal(dad, mom, map, map, currDay,
+                        cellRandom.setStream(SimulationRandom.birthStream, currDay, cell)));
+            }
+        }
+    }
+
+    private void givingBirth(Animal dad, Animal mom, Animal child) {
+        population.add(child);
+        map.placeAnimal(child);
         currAnimalsNumber++;
 
         dad.setChildrenNumber(dad.getChildrenNumber()+1);
@@ -132,58 +470,222 @@ public class SimulationEngine implements Runnable{
     }
 
     public void eatGrasses(){
-        positionsWithAnimalAndGrass.forEach(position -> {
-            List<Animal> animals = map.getSortedListOfAnimalsOnPositionDesc(position);
-            Grass grass = map.grassMap.get(position);
-
-            List<Animal> theStrongestAnimalsList = getTheStrongestAnimals(animals);
-            if (theStrongestAnimalsList != null){
-                float energyPerAnimal = Objects.requireNonNull(grass).getEnergy() / theStrongestAnimalsList.size();
-                theStrongestAnimalsList.forEach(animal -> animal.setEnergy(animal.getEnergy() + energyPerAnimal));
-                map.removeElement(grass, position);
+        collectSortedCells(cellsWithAnimalAndGrass);
+        partition.forEach(partition.getStripesNumber(), this::eatGrassesInStripe);
+
+        for (int i = 0; i < sortedCells.size(); i++){
+            if (events != null){
+                Animal eater = map.animalCells.getTheStrongest(sortedCells.get(i));
+                events.addEaten(sortedCells.get(i), (eater != null) ? eater.getSlot() : -1);
             }
-        });
+            map.removeGrass(sortedCells.get(i));
+        }
 
-        positionsWithAnimalAndGrass.clear();
+        metrics.addGrassEaten(sortedCells.size());
+        cellsWithAnimalAndGrass.clear();
     }
 
-    public List<Animal> getTheStrongestAnimals(List<Animal> animals){
-        if (animals.size() == 0) return null;
+    private void eatGrassesInStripe(int stripe){
+        int end = partition.getStripeStart(sortedCells, stripe + 1);
+        for (int i = partition.getStripeStart(sortedCells, stripe); i < end; i++){
+            int cell = sortedCells.get(i);
+            Animal theStrongestAnimal = map.animalCells.getTheStrongest(cell);
 
-        List<Animal> theStrongestAnimals = new ArrayList<>(List.of(animals.get(0)));
-        int index = 1;
-        while(index < animals.size() && animals.get(index) == animals.get(0)){
-            theStrongestAnimals.add(animals.get(index));
-            index++;
+            if (theStrongestAnimal != null)
+                theStrongestAnimal.setEnergy(theStrongestAnimal.getEnergy() + grassEnergy);
         }
+    }
 
-        return theStrongestAnimals;
+    private void collectSortedCells(IndexedCellSet cells){
+        sortedCells.clear();
+        for (int i = 0; i < cells.size(); i++)
+            sortedCells.add(cells.get(i));
+
+        sortedCells.sort();
     }
 
     public void moveEachAnimal(){
-        for (Animal currentAnimal: allAnimals){
-            if (ifAnimalCanMove(currentAnimal)){
-                Vector2d beforeMovePosition = currentAnimal.getPosition();
-                currentAnimal.move(moveEnergy);
-                Vector2d afterMovePosition = currentAnimal.getPosition();
-                if (beforeMovePosition != afterMovePosition && map.isGrassOnPosition(afterMovePosition))
-                    positionsWithAnimalAndGrass.add(afterMovePosition);
-            }else{
-                currentAnimal.setAsDead();
-                deadAnimals.add(currentAnimal);
+        int chunksNumber = partition.getChunksNumber(population.size());
+        ensureChunkRecords(chunksNumber);
+        currStamp++;
+        if (events != null) events.startMoves(population.size());
+
+        partition.forEach(chunksNumber, this::moveChunk);
+        partition.forEach(partition.getStripesNumber(), this::applyMovesInStripe);
+
+        for (int chunk = 0; chunk < chunksNumber; chunk++){
+            IntArrayList dead = deadRecords[chunk];
+            for (int i = 0; i < dead.size(); i++)
+                deadAnimals.add(population.getAnimal(dead.get(i)));
+        }
+
+        for (int stripe = 0; stripe < partition.getStripesNumber(); stripe++){
+            IntArrayList touched = touchedCells[stripe];
+            for (int i = 0; i < touched.size(); i++)
+                map.markCellChanged(touched.get(i));
+
+            IntArrayList crowdedChanges = crowdedChangeRecords[stripe];
+            for (int i = 0; i < crowdedChanges.size(); i++)
+                map.animalCells.refreshCrowded(crowdedChanges.get(i));
+
+            IntArrayList freeChanges = freeChangeRecords[stripe];
+            for (int i = 0; i < freeChanges.size(); i++)
+                map.refreshFreeState(freeChanges.get(i));
+
+            IntArrayList grassCells = grassCellRecords[stripe];
+            for (int i = 0; i < grassCells.size(); i++)
+                cellsWithAnimalAndGrass.add(grassCells.get(i));
+        }
+
+        movesCounter += population.size() - deadAnimals.size();
+        metrics.addMoves(population.size() - deadAnimals.size());
+        if (!deadAnimals.isEmpty())
+            DeathsEvent.commit(currDay + 1, deadAnimals.size(), population.size() - deadAnimals.size());
+    }
+
+    private void moveChunk(int chunk){
+        IntArrayList dead = deadRecords[chunk];
+        IntArrayList[] leaving = leavingRecords[chunk];
+        IntArrayList[] arriving = arrivingRecords[chunk];
+        dead.clear();
+        for (int stripe = 0; stripe < partition.getStripesNumber(); stripe++){
+            leaving[stripe].clear();
+            arriving[stripe].clear();
+        }
+
+        Topology topology = map.topology;
+        byte[] moveCodes = (events != null) ? events.moveCodes : null;
+        SimulationRandom animalRandom = new SimulationRandom(random.getSeed());
+        int end = Math.min(population.size(), (chunk + 1) * TickPartition.chunkSize);
+
+        for (int slot = chunk * TickPartition.chunkSize; slot < end; slot++){
+            int cell = population.getCell(slot);
+            float energy = population.getEnergy(slot);
+
+            if (energy < moveEnergy){
+                population.setAlive(slot, false);
+                dead.add(slot);
+                if (moveCodes != null) moveCodes[slot] = DayEvents.deathCode;
+                arriving[partition.getStripe(cell)].add(slot * 2);
+                continue;
+            }
+
+            int orient = population.getOrient(slot);
+            animalRandom.setStream(SimulationRandom.moveStream, currDay, population.getId(slot));
+            int directionNumber = population.getGene(slot, animalRandom.nextInt(Genome.genesNumber));
+            int newCell = cell;
+            if (moveCodes != null) moveCodes[slot] = (byte) directionNumber;
+
+            if (directionNumber == 0 || directionNumber == 4){
+                int move = (directionNumber == 0) ? topology.moveForward(cell, orient) :
+                        topology.moveBackward(cell, orient);
+                newCell = Topology.getCell(move);
+                orient = Topology.getDirection(move);
+            }
+            else
+                orient = topology.rotate(orient, directionNumber);
+
+            population.setOrient(slot, orient);
+            population.setEnergy(slot, energy - moveEnergy);
+            population.setLifetime(slot, population.getLifetime(slot) + 1);
+
+            if (newCell != cell){
+                population.setCell(slot, newCell);
+                leaving[partition.getStripe(cell)].add(slot);
+                leaving[partition.getStripe(cell)].add(cell);
+                arriving[partition.getStripe(newCell)].add(slot * 2 + 1);
+            }
+            else
+                arriving[partition.getStripe(cell)].add(slot * 2);
+        }
+    }
+
+    private void applyMovesInStripe(int stripe){
+        int chunksNumber = partition.getChunksNumber(population.size());
+        IntArrayList touched = touchedCells[stripe];
+        IntArrayList moved = movedCells[stripe];
+        touched.clear();
+        moved.clear();
+
+        for (int chunk = 0; chunk < chunksNumber; chunk++){
+            IntArrayList leaving = leavingRecords[chunk][stripe];
+            for (int i = 0; i < leaving.size(); i += 2){
+                int cell = leaving.get(i + 1);
+                map.animalCells.removeUntracked(cell, population.getAnimal(leaving.get(i)));
+                moved.add(cell);
+
+                if (cellStamps[cell] != currStamp){
+                    cellStamps[cell] = currStamp;
+                    touched.add(cell);
+                }
+            }
+        }
+
+        for (int chunk = 0; chunk < chunksNumber; chunk++){
+            IntArrayList arriving = arrivingRecords[chunk][stripe];
+            for (int i = 0; i < arriving.size(); i++){
+                int slot = arriving.get(i) >>> 1;
+                int cell = population.getCell(slot);
+
+                if ((arriving.get(i) & 1) == 1){
+                    map.animalCells.appendUntracked(cell, population.getAnimal(slot));
+                    moved.add(cell);
+                }
+
+                if (cellStamps[cell] != currStamp){
+                    cellStamps[cell] = currStamp;
+                    touched.add(cell);
+                }
+            }
+        }
+
+        IntArrayList crowdedChanges = crowdedChangeRecords[stripe];
+        IntArrayList freeChanges = freeChangeRecords[stripe];
+        IntArrayList grassCells = grassCellRecords[stripe];
+        crowdedChanges.clear();
+        freeChanges.clear();
+        grassCells.clear();
+
+        for (int i = 0; i < touched.size(); i++)
+            map.animalCells.sortByEnergy(touched.get(i));
+
+        for (int i = 0; i < moved.size(); i++){
+            int cell = moved.get(i);
+            if (map.animalCells.isCrowdedChanged(cell)) crowdedChanges.add(cell);
+            if (map.isFreeStateChanged(cell)) freeChanges.add(cell);
+            if (map.animalCells.count(cell) > 0 && map.isGrassOnCell(cell)) grassCells.add(cell);
+        }
+    }
+
+    private void ensureChunkRecords(int chunksNumber){
+        if (chunksNumber <= deadRecords.length) return;
+
+        int oldChunksNumber = deadRecords.length;
+        deadRecords = Arrays.copyOf(deadRecords, chunksNumber);
+        leavingRecords = Arrays.copyOf(leavingRecords, chunksNumber);
+        arrivingRecords = Arrays.copyOf(arrivingRecords, chunksNumber);
+
+        for (int chunk = oldChunksNumber; chunk < chunksNumber; chunk++){
+            deadRecords[chunk] = new IntArrayList();
+            leavingRecords[chunk] = new IntArrayList[partition.getStripesNumber()];
+            arrivingRecords[chunk] = new IntArrayList[partition.getStripesNumber()];
+            for (int stripe = 0; stripe < partition.getStripesNumber(); stripe++){
+                leavingRecords[chunk][stripe] = new IntArrayList();
+                arrivingRecords[chunk][stripe] = new IntArrayList();
             }
         }
     }
 
     public void deleteDeadAnimals(){
-        for (Animal deadAnimal: new HashSet<>(deadAnimals)){
+        for (Animal deadAnimal: deadAnimals){
             deadAnimalsCounter++;
             updateAverageLifetime(deadAnimal);
-            map.removeElement(deadAnimal, deadAnimal.getPosition());
-            allAnimals.remove(deadAnimal);
+            map.removeAnimal(deadAnimal, deadAnimal.getCell());
+            population.remove(deadAnimal);
         }
 
         currAnimalsNumber -= deadAnimals.size();
+        metrics.addDeaths(deadAnimals.size());
         deadAnimals.clear();
     }
 
@@ -193,28 +695,33 @@ public class SimulationEngine implements Runnable{
     }
 
     public void createFirstAnimals(int startingAnimalsNumber, int startEnergy){
-        Set<Vector2d> allFreePositionsSet = new HashSet<>(map.jungleFreePositions);
-        allFreePositionsSet.addAll(map.stepFreePositions);
-        List<Vector2d> allFreePositionsList = new ArrayList<>(allFreePositionsSet);
+        IntArrayList allFreeCellsList = new IntArrayList(map.jungleFreePositions.size() + map.stepFreePositions.size());
+        for (int cell: map.jungleFreePositions.toArray())
+            allFreeCellsList.add(cell);
+        for (int cell: map.stepFreePositions.toArray())
+            allFreeCellsList.add(cell);
         
+        random.setStream(SimulationRandom.initialAnimalsStream, currDay, 0);
         for (int i = 0; i < startingAnimalsNumber; i++){
-            int randomNum = ThreadLocalRandom.current().nextInt(0, allFreePositionsList.size());
-            Animal newAnimal = new Animal(new Vector2d(allFreePositionsList.get(randomNum)), map,
-                    startEnergy, map, currDay);
+            int randomNum = random.nextInt(allFreeCellsList.size());
+            Animal newAnimal = new Animal(map.animalCells.toPosition(allFreeCellsList.get(randomNum)), map,
+                    startEnergy, map, currDay, random);
             
-            map.placeElement(newAnimal);
-            allAnimals.add(newAnimal);
+            map.placeAnimal(newAnimal);
+            population.add(newAnimal);
 
-            allFreePositionsList.remove(randomNum);
+            int lastIndex = allFreeCellsList.size() - 1;
+            allFreeCellsList.set(randomNum, allFreeCellsList.get(lastIndex));
+            allFreeCellsList.remove(lastIndex);
         }
     }
 
     public float getAverageEnergy(){
         float sumOfEnergy = 0;
         int counter = 0;
-        for (Animal animal: allAnimals) {
-            if (deadAnimals.contains(animal)) continue;
-            sumOfEnergy += animal.getEnergy();
+        for (int slot = 0; slot < population.size(); slot++) {
+            if (!population.isAlive(slot)) continue;
+            sumOfEnergy += population.getEnergy(slot);
             counter++;
         }
         
@@ -224,9 +731,9 @@ public class SimulationEngine implements Runnable{
     public float getAverageChildrenNumber(){
         int sumOfChildren = 0;
         int counter = 0;
-        for (Animal animal: allAnimals) {
-            if (deadAnimals.contains(animal)) continue;
-            sumOfChildren += animal.getChildrenNumber();
+        for (int slot = 0; slot < population.size(); slot++) {
+            if (!population.isAlive(slot)) continue;
+            sumOfChildren += population.getChildrenNumber(slot);
             counter++;
         }
         return (float) sumOfChildren / counter;
@@ -234,23 +741,16 @@ public class SimulationEngine implements Runnable{
 
     public void updateMap(){
         currDay++;
-        int currentGrassAmount = map.grassMap.size();
+        int currentGrassAmount = map.getGrassNumber();
+        map.cacheDominantGenotype();
+        map.commitChangedCells();
 
         observer.show(map, currDay, currAnimalsNumber, currentGrassAmount, getAverageEnergy(),
                 averageLifetime, getAverageChildrenNumber(), magicBornCounter);
-
-        try {
-            Thread.sleep(moveDelay);
-        } catch (InterruptedException e) {
-            System.out.println("The simulation has stopped");
-        }
     }
 
     public void setIfRunning(boolean ifRunning) {
-        synchronized (this){
-            this.ifRunning = ifRunning;
-            notifyAll();
-        }
+        this.ifRunning = ifRunning;
     }
 
     public boolean ifAnimalCanMove(Animal animal){
@@ -260,4 +760,37 @@ public class SimulationEngine implements Runnable{
     public AbstractMap getMap() {
         return map;
     }
+
+    public TickMetrics getMetrics() {
+        return metrics;
+    }
+
+    public DayStats getDayStats() {
+        return new DayStats(currDay, currAnimalsNumber, map.getGrassNumber(), getAverageEnergy(), averageLifetime,
+                getAverageChildrenNumber(), magicBornCounter);
+    }
+
+    public int getStartEnergy() {
+        return startEnergy;
+    }
+
+    public boolean isMagicBorn() {
+        return ifMagicBorn;
+    }
+
+    public int getMoveDelay() {
+        return moveDelay;
+    }
+
+    public int getCurrDay() {
+        return currDay;
+    }
+
+    public long getSeed() {
+        return random.getSeed();
+    }
+
+    public long getMovesCounter() {
+        return movesCounter;
+    }
 }
@@ -0,0 +1,45 @@
+package darwin;
+
+public class SimulationRandom {
+    public static final int initialAnimalsStream = 0;
+    public static final int moveStream = 1;
+    public static final int birthStream = 2;
+    public static final int magicBornStream = 3;
+    public static final int grassStream = 4;
+    private static final long goldenGamma = 0x9E3779B97F4A7C15L;
+    private final long seed;
+    private long state;
+
+    public SimulationRandom(long seed){
+        this.seed = seed;
+        this.state = mix(seed);
+    }
+
+    public SimulationRandom setStream(int streamType, int day, long key){
+        state = mix(mix(mix(seed + streamType * goldenGamma) + day) + key);
+        return this;
+    }
+
+    public long nextLong(){
+        state += goldenGamma;
+        return mix(state);
+    }
+
+    public int nextInt(int bound){
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    public boolean nextBoolean(){
+        return nextLong() < 0;
+    }
+
+    public long getSeed(){
+        return seed;
+    }
+
+    private static long mix(long value){
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
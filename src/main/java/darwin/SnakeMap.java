@@ -2,7 +2,6 @@ package darwin;
 
 public class SnakeMap extends AbstractMap{
     public SnakeMap(int width, int height, float jungleRatio) {
-        super(width, height, jungleRatio);
-        isFenced = false;
+        super(width, height, jungleRatio, new WrapTopology(width, height));
     }
 }
@@ -0,0 +1,199 @@
+package darwin;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+public class StatsFileReader implements AutoCloseable {
+    private final FileChannel channel;
+    private final MappedByteBuffer data;
+    private final List<String> columnNames = new ArrayList<>();
+    private final Map<String, String> parameters = new LinkedHashMap<>();
+    private final boolean[] integerColumns;
+    private final int headerSize;
+    private final int blockRows;
+    private final int blockSize;
+    private final int rowsNumber;
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2){
+            System.err.println("Usage: StatsFileReader <stats file> [output .csv name without extension]");
+            System.exit(1);
+        }
+
+        String csvName = (args.length == 2) ? args[1] : args[0].replaceFirst("\\.dws$", "");
+        try (StatsFileReader reader = new StatsFileReader(args[0])) {
+            reader.convertToCSV(csvName);
+        } catch (Exception e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    public StatsFileReader(String fileName) throws IOException {
+        channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ);
+
+        try {
+            MappedByteBuffer start = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), 28));
+            if (start.limit() < 28 || start.getInt(0) != StatsFileWriter.magic)
+                throw new IOException(fileName + " is not a stats file");
+            if (start.getInt(4) != StatsFileWriter.version)
+                throw new IOException("Unsupported stats file version " + start.getInt(4) + " in " + fileName);
+
+            headerSize = start.getInt(8);
+            blockRows = start.getInt(12);
+            rowsNumber = start.getInt(StatsFileWriter.rowsNumberOffset);
+            int columnsNumber = start.getInt(20);
+            int parametersNumber = start.getInt(24);
+            integerColumns = new boolean[columnsNumber];
+            blockSize = blockRows * StatsFileWriter.valueSize * columnsNumber;
+
+            byte[] headerBytes = new byte[headerSize - 28];
+            channel.map(FileChannel.MapMode.READ_ONLY, 28, headerBytes.length).get(headerBytes);
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(headerBytes));
+            for (int column = 0; column < columnsNumber; column++){
+                integerColumns[column] = input.readByte() == StatsFileWriter.intColumn;
+                columnNames.add(input.readUTF());
+            }
+            for (int i = 0; i < parametersNumber; i++)
+                parameters.put(input.readUTF(), input.readUTF());
+
+            long blocksNumber = (rowsNumber + blockRows - 1) / blockRows;
+            data = channel.map(FileChannel.MapMode.READ_ONLY, headerSize, blocksNumber * blockSize);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getRowsNumber(){
+        return rowsNumber;
+    }
+
+    public int getColumnsNumber(){
+        return columnNames.size();
+    }
+
+    public List<String> getColumnNames(){
+        return Collections.unmodifiableList(columnNames);
+    }
+
+    public int getColumnIndex(String columnName){
+        return columnNames.indexOf(columnName);
+    }
+
+    public boolean isIntegerColumn(int column){
+        return integerColumns[column];
+    }
+
+    public Map<String, String> getParameters(){
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    private int getPosition(int column, int row){
+        if (row < 0 || row >= rowsNumber)
+            throw new IndexOutOfBoundsException("Row " + row + " out of " + rowsNumber);
+
+        return (row / blockRows) * blockSize + (column * blockRows + row % blockRows) * StatsFileWriter.valueSize;
+    }
+
+    public int getInt(int column, int row){
+        int position = getPosition(column, row);
+        return integerColumns[column] ? data.getInt(position) : (int) data.getFloat(position);
+    }
+
+    public float getFloat(int column, int row){
+        int position = getPosition(column, row);
+        return integerColumns[column] ? data.getInt(position) : data.getFloat(position);
+    }
+
+    public Number getValue(int column, int row){
+        int position = getPosition(column, row);
+        return integerColumns[column] ? (Number) data.getInt(position) : (Number) data.getFloat(position);
+    }
+
+    public int getBlockRows(){
+        return blockRows;
+    }
+
+    public int getBlocksNumber(){
+        return (rowsNumber + blockRows - 1) / blockRows;
+    }
+
+    private ByteBuffer getColumnBlock(int column, int block){
+        if (block < 0 || block >= getBlocksNumber())
+            throw new IndexOutOfBoundsException("Block " + block + " out of " + getBlocksNumber());
+
+        int position = block * blockSize + column * blockRows * StatsFileWriter.valueSize;
+        int rows = Math.min(blockRows, rowsNumber - block * blockRows);
+        return data.slice(position, rows * StatsFileWriter.valueSize).order(data.order()).asReadOnlyBuffer();
+    }
+
+    public IntBuffer getIntColumnBlock(int column, int block){
+        if (!integerColumns[column])
+            throw new IllegalArgumentException("Column " + columnNames.get(column) + " holds floats");
+
+        return getColumnBlock(column, block).asIntBuffer();
+    }
+
+    public FloatBuffer getFloatColumnBlock(int column, int block){
+        if (integerColumns[column])
+            throw new IllegalArgumentException("Column " + columnNames.get(column) + " holds ints");
+
+        return getColumnBlock(column, block).asFloatBuffer();
+    }
+
+    public IntBuffer[] getIntColumn(int column){
+        IntBuffer[] blocks = new IntBuffer[getBlocksNumber()];
+        for (int block = 0; block < blocks.length; block++)
+            blocks[block] = getIntColumnBlock(column, block);
+
+        return blocks;
+    }
+
+    public FloatBuffer[] getFloatColumn(int column){
+        FloatBuffer[] blocks = new FloatBuffer[getBlocksNumber()];
+        for (int block = 0; block < blocks.length; block++)
+            blocks[block] = getFloatColumnBlock(column, block);
+
+        return blocks;
+    }
+
+    public void convertToCSV(String fileName) throws IOException {
+        int columnsNumber = columnNames.size();
+
+        try (StreamingCSVWriter writer = new StreamingCSVWriter(fileName + ".csv", columnNames)) {
+            for (int block = 0; block < getBlocksNumber(); block++){
+                IntBuffer[] intBlocks = new IntBuffer[columnsNumber];
+                FloatBuffer[] floatBlocks = new FloatBuffer[columnsNumber];
+                for (int column = 0; column < columnsNumber; column++){
+                    if (integerColumns[column]) intBlocks[column] = getIntColumnBlock(column, block);
+                    else floatBlocks[column] = getFloatColumnBlock(column, block);
+                }
+
+                int rows = Math.min(blockRows, rowsNumber - block * blockRows);
+                for (int row = 0; row < rows; row++){
+                    Number[] values = new Number[columnsNumber];
+                    for (int column = 0; column < columnsNumber; column++)
+                        values[column] = integerColumns[column] ? (Number) intBlocks[column].get(row) :
+                                (Number) floatBlocks[column].get(row);
+
+                    writer.writeRow(values);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
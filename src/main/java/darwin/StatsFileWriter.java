@@ -0,0 +1,95 @@
+package darwin;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+public class StatsFileWriter implements IStatsWriter {
+    static final int magic = 0x44575354;
+    static final int version = 1;
+    static final int blockRows = 4096;
+    static final int valueSize = 4;
+    static final int rowsNumberOffset = 16;
+    static final byte intColumn = 0;
+    static final byte floatColumn = 1;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final boolean[] integerColumns;
+    private final int headerSize;
+    private final int blockSize;
+    private MappedByteBuffer block = null;
+    private int rowsNumber = 0;
+
+    public StatsFileWriter(String fileName, Map<String, Boolean> columns, Map<String, String> parameters)
+            throws IOException {
+        this.integerColumns = new boolean[columns.size()];
+        this.blockSize = blockRows * valueSize * columns.size();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(magic);
+        output.writeInt(version);
+        output.writeInt(0);
+        output.writeInt(blockRows);
+        output.writeInt(0);
+        output.writeInt(columns.size());
+        output.writeInt(parameters.size());
+
+        int column = 0;
+        for (Map.Entry<String, Boolean> entry: columns.entrySet()){
+            integerColumns[column++] = entry.getValue();
+            output.writeByte(entry.getValue() ? intColumn : floatColumn);
+            output.writeUTF(entry.getKey());
+        }
+        for (Map.Entry<String, String> entry: parameters.entrySet()){
+            output.writeUTF(entry.getKey());
+            output.writeUTF(entry.getValue());
+        }
+        while (output.size() % 8 != 0) output.writeByte(0);
+        this.headerSize = output.size();
+
+        channel = FileChannel.open(Path.of(fileName), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, headerSize);
+        header.put(bytes.toByteArray());
+        header.putInt(8, headerSize);
+    }
+
+    @Override
+    public void writeRow(Number... values) throws IOException {
+        if (values.length != integerColumns.length)
+            throw new IllegalArgumentException("Expected " + integerColumns.length + " values, got " + values.length);
+
+        int rowInBlock = rowsNumber % blockRows;
+        if (rowInBlock == 0){
+            if (block != null) block.force();
+            block = channel.map(FileChannel.MapMode.READ_WRITE,
+                    headerSize + (long) (rowsNumber / blockRows) * blockSize, blockSize);
+        }
+
+        for (int column = 0; column < values.length; column++){
+            int position = (column * blockRows + rowInBlock) * valueSize;
+            if (integerColumns[column]) block.putInt(position, values[column].intValue());
+            else block.putFloat(position, values[column].floatValue());
+        }
+
+        rowsNumber++;
+        header.putInt(rowsNumberOffset, rowsNumber);
+    }
+
+    public int getRowsNumber(){
+        return rowsNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (block != null) block.force();
+        header.force();
+        channel.close();
+    }
+}
@@ -0,0 +1,146 @@
+package darwin;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class StreamingCSVWriter implements IStatsWriter {
+    private static final int queueCapacity = 4096;
+    private static final int bufferSize = 1 << 16;
+    private static final long flushIntervalMillis = 1000;
+    private static final Number[] endOfStream = new Number[0];
+    private final BlockingQueue<Number[]> rows = new ArrayBlockingQueue<>(queueCapacity);
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+    private final StringBuilder line = new StringBuilder();
+    private final double[] sums;
+    private final Thread writerThread;
+    private long rowsNumber = 0;
+    private volatile IOException writeException = null;
+
+    public StreamingCSVWriter(String fileName, List<String> columnNames) throws IOException {
+        this.channel = FileChannel.open(Path.of(fileName), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.sums = new double[columnNames.size()];
+
+        line.append(String.join(",", columnNames)).append(System.lineSeparator());
+        writeLine();
+
+        writerThread = new Thread(this::writeRows, "csv-writer-" + fileName);
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void writeRow(Number... values) throws IOException {
+        if (values.length != sums.length)
+            throw new IllegalArgumentException("Expected " + sums.length + " values, got " + values.length);
+        enqueue(values);
+    }
+
+    @Override
+    public void close() throws IOException {
+        enqueue(endOfStream);
+
+        boolean interrupted = false;
+        while (writerThread.isAlive()){
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) Thread.currentThread().interrupt();
+        if (writeException != null) throw writeException;
+    }
+
+    private void enqueue(Number[] values) throws IOException {
+        boolean interrupted = false;
+
+        try {
+            while (true){
+                if (writeException != null) throw writeException;
+
+                try {
+                    if (rows.offer(values, flushIntervalMillis, TimeUnit.MILLISECONDS)) return;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeRows(){
+        long lastFlush = System.currentTimeMillis();
+
+        try (channel) {
+            while (true){
+                Number[] values = rows.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (values == endOfStream) break;
+
+                if (values != null){
+                    appendRow(values);
+                    writeLine();
+                }
+
+                if (System.currentTimeMillis() - lastFlush >= flushIntervalMillis){
+                    flushBuffer();
+                    lastFlush = System.currentTimeMillis();
+                }
+            }
+
+            for (double sum: sums){
+                if (line.length() > 0) line.append(',');
+                line.append(sum / rowsNumber);
+            }
+            line.append(System.lineSeparator());
+            writeLine();
+            flushBuffer();
+        } catch (IOException e) {
+            writeException = e;
+        } catch (InterruptedException e) {
+            writeException = new InterruptedIOException("Writing of the stats was interrupted");
+            rows.clear();
+        }
+    }
+
+    private void appendRow(Number[] values){
+        for (int i = 0; i < values.length; i++){
+            if (i > 0) line.append(',');
+            line.append(values[i]);
+            sums[i] += values[i].doubleValue();
+        }
+        line.append(System.lineSeparator());
+        rowsNumber++;
+    }
+
+    private void writeLine() throws IOException {
+        byte[] bytes = line.toString().getBytes(StandardCharsets.US_ASCII);
+        line.setLength(0);
+
+        if (bytes.length > buffer.remaining()) flushBuffer();
+        if (bytes.length > buffer.capacity()){
+            channel.write(ByteBuffer.wrap(bytes));
+            return;
+        }
+        buffer.put(bytes);
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+}
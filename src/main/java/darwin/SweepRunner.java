@@ -0,0 +1,283 @@
+package darwin;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SweepRunner {
+    private static final List<String> sweptOptions = List.of("jungleRatio", "startEnergy", "moveEnergy",
+            "grassEnergy");
+    private static final int rowsPerFlush = 1000;
+    private final Map<String, String> menuValues = OptionParser.createDefaultMenuValues();
+    private final Map<String, String> sweptValues = new LinkedHashMap<>();
+    private int days = 1000;
+    private boolean ifWallMap = false;
+    private int samples = 0;
+    private int seedsNumber = 1;
+    private long seed = 0;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int timeLimit = 0;
+    private String outputPath = "sweep_results.csv";
+    private volatile boolean cancelled = false;
+    private final AtomicInteger finishedRuns = new AtomicInteger();
+    private BufferedWriter writer;
+
+    public static void main(String[] args) {
+        SweepRunner runner = new SweepRunner();
+
+        try {
+            runner.readOptions(args);
+            runner.run();
+        } catch (Exception e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: SweepRunner [key=value ...]. Possible keys: " + String.join(", ", sweptOptions)
+                    + ", " + String.join(", ", HeadlessRunner.menuOptionNames.keySet())
+                    + ", days, map, samples, seeds, seed, threads, timeLimit, output");
+            System.exit(1);
+        }
+    }
+
+    public void readOptions(String[] args) throws Exception {
+        for (String arg: args){
+            String[] keyAndValue = arg.replaceFirst("^--", "").split("=", 2);
+            if (keyAndValue.length != 2)
+                throw new Exception("Wrong argument '" + arg + "'. Expected key=value");
+
+            setOption(keyAndValue[0], keyAndValue[1]);
+        }
+    }
+
+    private void setOption(String key, String value) throws Exception {
+        if (sweptOptions.contains(key))
+            sweptValues.put(key, value);
+        else if (HeadlessRunner.menuOptionNames.containsKey(key))
+            menuValues.put(HeadlessRunner.menuOptionNames.get(key), value);
+        else if (key.equals("days"))
+            days = OptionParser.parseIntegerValues(value).intValue();
+        else if (key.equals("map"))
+            ifWallMap = parseMap(value);
+        else if (key.equals("samples"))
+            samples = OptionParser.parseIntegerValues(value).intValue();
+        else if (key.equals("seeds"))
+            seedsNumber = OptionParser.parseIntegerValues(value).intValue();
+        else if (key.equals("seed"))
+            seed = Long.parseLong(value);
+        else if (key.equals("threads"))
+            threads = Math.max(1, OptionParser.parseIntegerValues(value).intValue());
+        else if (key.equals("timeLimit"))
+            timeLimit = OptionParser.parseIntegerValues(value).intValue();
+        else if (key.equals("output"))
+            outputPath = value;
+        else
+            throw new Exception("Unknown option '" + key + "'");
+    }
+
+    private boolean parseMap(String value) throws Exception {
+        return switch (value.toLowerCase()){
+            case "snake" -> false;
+            case "wall" -> true;
+            default -> throw new Exception("Wrong map input. Possible ones: 'snake', 'wall'");
+        };
+    }
+
+    public List<Map<String, String>> createParameterSets() throws Exception {
+        List<Map<String, String>> parameterSets = new ArrayList<>();
+
+        if (samples > 0){
+            SimulationRandom random = new SimulationRandom(seed);
+            for (int i = 0; i < samples; i++){
+                Map<String, String> parameters = new LinkedHashMap<>();
+                for (String option: sweptOptions)
+                    parameters.put(option, drawValue(option, random));
+                parameterSets.add(parameters);
+            }
+        }
+        else {
+            parameterSets.add(new LinkedHashMap<>());
+            for (String option: sweptOptions){
+                List<Map<String, String>> extendedSets = new ArrayList<>();
+                for (Map<String, String> parameters: parameterSets){
+                    for (String value: getListedValues(option)){
+                        Map<String, String> extendedParameters = new LinkedHashMap<>(parameters);
+                        extendedParameters.put(option, value);
+                        extendedSets.add(extendedParameters);
+                    }
+                }
+                parameterSets = extendedSets;
+            }
+        }
+
+        for (Map<String, String> parameters: parameterSets)
+            OptionParser.parseValues(toMenuValues(parameters));
+
+        return parameterSets;
+    }
+
+    private List<String> getListedValues(String option) throws Exception {
+        if (!sweptValues.containsKey(option))
+            return List.of(menuValues.get(HeadlessRunner.menuOptionNames.get(option)));
+        if (sweptValues.get(option).contains(".."))
+            throw new Exception("Range of '" + option + "' can be used only with samples=N");
+
+        return List.of(sweptValues.get(option).split(","));
+    }
+
+    private String drawValue(String option, SimulationRandom random) throws Exception {
+        String values = sweptValues.getOrDefault(option, menuValues.get(HeadlessRunner.menuOptionNames.get(option)));
+        if (!values.contains("..")){
+            String[] listedValues = values.split(",");
+            return listedValues[random.nextInt(listedValues.length)];
+        }
+
+        String[] bounds = values.split("\\.\\.", 2);
+        if (option.equals("jungleRatio")){
+            float lower = OptionParser.parseJungleRatio(bounds[0]).floatValue();
+            float upper = OptionParser.parseJungleRatio(bounds[1]).floatValue();
+            return String.valueOf(lower + (upper - lower) * (random.nextLong() >>> 40) / (float) (1 << 24));
+        }
+
+        int lower = OptionParser.parseIntegerValues(bounds[0]).intValue();
+        int upper = OptionParser.parseIntegerValues(bounds[1]).intValue();
+        if (upper < lower)
+            throw new Exception("Wrong range of '" + option + "': " + values);
+
+        return String.valueOf(lower + random.nextInt(upper - lower + 1));
+    }
+
+    private Map<String, String> toMenuValues(Map<String, String> parameters){
+        Map<String, String> runMenuValues = new HashMap<>(menuValues);
+        parameters.forEach((option, value) -> runMenuValues.put(HeadlessRunner.menuOptionNames.get(option), value));
+        return runMenuValues;
+    }
+
+    public void run() throws Exception {
+        List<Map<String, String>> parameterSets = createParameterSets();
+        List<SweepRun> runs = new ArrayList<>();
+        for (Map<String, String> parameters: parameterSets){
+            for (int i = 0; i < seedsNumber; i++)
+                runs.add(new SweepRun(runs.size(), parameters, seed + i));
+        }
+
+        writer = new BufferedWriter(new FileWriter(outputPath));
+        writer.write("run,seed," + String.join(",", sweptOptions) + ",Day,"
+                + String.join(",", HeadlessRunner.statsColumns.keySet()));
+        writer.newLine();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Thread shutdownHook = new Thread(() -> {
+            cancel();
+            awaitTermination(executor);
+        });
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (SweepRun run: runs)
+            futures.add(executor.submit(run));
+        executor.shutdown();
+
+        if (timeLimit > 0 && !executor.awaitTermination(timeLimit, TimeUnit.SECONDS)){
+            System.out.println("Time limit reached, cancelling the remaining runs");
+            cancel();
+        }
+
+        for (Future<?> future: futures)
+            future.get();
+
+        Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        writer.close();
+        System.out.printf("%d of %d runs finished in %.3f s, results saved to %s%n", finishedRuns.get(), runs.size(),
+                (System.nanoTime() - start) / 1e9, outputPath);
+    }
+
+    public void cancel(){
+        cancelled = true;
+    }
+
+    private void awaitTermination(ExecutorService executor){
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            synchronized (this){
+                writer.flush();
+            }
+        } catch (InterruptedException | IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private synchronized void writeRows(StringBuilder rows) throws IOException {
+        writer.write(rows.toString());
+        rows.setLength(0);
+    }
+
+    private class SweepRun implements IAppObserver, Runnable {
+        private final int number;
+        private final Map<String, String> parameters;
+        private final long seed;
+        private final String rowPrefix;
+        private final StringBuilder rows = new StringBuilder();
+        private int bufferedRows = 0;
+        private SimulationEngine engine;
+
+        SweepRun(int number, Map<String, String> parameters, long seed){
+            this.number = number;
+            this.parameters = parameters;
+            this.seed = seed;
+            this.rowPrefix = number + "," + seed + "," + String.join(",", parameters.values()) + ",";
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) return;
+
+            try {
+                Map<String, Number> menuArgs = OptionParser.parseValues(toMenuValues(parameters));
+                engine = new SimulationEngine((int) menuArgs.get("Map width"), (int) menuArgs.get("Map height"),
+                        (float) menuArgs.get("Jungle ratio"), (int) menuArgs.get("Start animals number"),
+                        (int) menuArgs.get("Animal start energy"), (int) menuArgs.get("Animal move energy"),
+                        (int) menuArgs.get("Grass energy"), 0, (int) menuArgs.get("Use magic born [yes/no]") == 1,
+                        ifWallMap, this, seed);
+                appendRow(engine.getDayStats());
+                engine.setIfRunning(days > 0);
+                if (days > 0) engine.run();
+                writeRows(rows);
+
+                if (!cancelled)
+                    System.out.printf("Run %d finished (%d done)%n", number, finishedRuns.incrementAndGet());
+            } catch (Exception e) {
+                System.err.println("Run " + number + " failed: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void show(AbstractMap map, int day, int animalsNumber, int grassNumber, float averageEnergy,
+                         float averageLifetime, float averageChildrenNumber, int magicBornCounter) {
+            appendRow(new DayStats(day, animalsNumber, grassNumber, averageEnergy, averageLifetime,
+                    averageChildrenNumber, magicBornCounter));
+
+            if (++bufferedRows == rowsPerFlush){
+                bufferedRows = 0;
+                try {
+                    writeRows(rows);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+
+            if (day >= days || cancelled) engine.finished = true;
+        }
+
+        private void appendRow(DayStats stats){
+            rows.append(rowPrefix).append(stats.getDay()).append(',').append(stats.getAnimalsNumber()).append(',')
+                    .append(stats.getGrassNumber()).append(',').append(stats.getAverageEnergy()).append(',')
+                    .append(stats.getAverageLifetime()).append(',').append(stats.getAverageChildrenNumber())
+                    .append(',').append(stats.getMagicBornCounter()).append(System.lineSeparator());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package darwin;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("darwin.Tick")
+@Label("Simulation Tick")
+@Description("One day of a simulation, from its start to the end of the observer notification")
+@Category({"Darwin World", "Simulation"})
+@Enabled(false)
+@StackTrace(false)
+public class TickEvent extends Event {
+    @Label("Simulation")
+    String simulation;
+
+    @Label("Day")
+    int day;
+
+    @Label("Animals")
+    int animalsNumber;
+
+    @Label("Grass")
+    int grassNumber;
+}
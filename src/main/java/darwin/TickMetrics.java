@@ -0,0 +1,299 @@
+package darwin;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+public class TickMetrics implements TickMetricsMBean {
+    static final String[] phaseNames = {"deleteDead", "move", "eat", "reproduce", "grassGrowth", "observer"};
+    static final int deleteDeadPhase = 0;
+    static final int movePhase = 1;
+    static final int eatPhase = 2;
+    static final int reproducePhase = 3;
+    static final int grassGrowthPhase = 4;
+    static final int observerPhase = 5;
+    private static final long rateWindow = 1_000_000_000L;
+    private static final TickEvent tickEventProbe = new TickEvent();
+    private static final TickPhaseEvent phaseEventProbe = new TickPhaseEvent();
+    private final LatencyHistogram[] phases = new LatencyHistogram[phaseNames.length];
+    private final LatencyHistogram ticksHistogram = new LatencyHistogram();
+    private final long[] windowStartSums = new long[phaseNames.length];
+    private String name = null;
+    private ObjectName objectName = null;
+    private int day = 0;
+    private TickEvent tickEvent = null;
+    private TickPhaseEvent phaseEvent = null;
+    private long tickStart = 0;
+    private long phaseStart = 0;
+    private long windowStart = 0;
+    private long windowStartTicks = 0;
+    private volatile long lastTickEnd = 0;
+    private volatile double ticksPerSecond = 0;
+    private volatile double[] recentPhaseMicros = new double[phaseNames.length];
+    private volatile boolean resetRequested = false;
+    private volatile long ticks = 0;
+    private volatile long births = 0;
+    private volatile long deaths = 0;
+    private volatile long moves = 0;
+    private volatile long grassEaten = 0;
+
+    public TickMetrics(){
+        for (int phase = 0; phase < phases.length; phase++)
+            phases[phase] = new LatencyHistogram();
+    }
+
+    public void startTick(int day){
+        if (resetRequested) resetNow();
+
+        this.day = day;
+        if (tickEventProbe.isEnabled()){
+            tickEvent = new TickEvent();
+            tickEvent.begin();
+        }
+        startPhaseEvent();
+
+        tickStart = System.nanoTime();
+        phaseStart = tickStart;
+        if (windowStart == 0) windowStart = tickStart;
+    }
+
+    public void endPhase(int phase){
+        long now = System.nanoTime();
+        phases[phase].record(now - phaseStart);
+        phaseStart = now;
+
+        if (phaseEvent != null){
+            phaseEvent.end();
+            if (phaseEvent.shouldCommit()){
+                phaseEvent.simulation = name;
+                phaseEvent.day = day;
+                phaseEvent.phase = phaseNames[phase];
+                phaseEvent.commit();
+            }
+            phaseEvent = null;
+        }
+        if (phase + 1 < phases.length) startPhaseEvent();
+    }
+
+    private void startPhaseEvent(){
+        if (phaseEventProbe.isEnabled()){
+            phaseEvent = new TickPhaseEvent();
+            phaseEvent.begin();
+        }
+    }
+
+    public void endTick(int animalsNumber, int grassNumber){
+        long now = System.nanoTime();
+        ticksHistogram.record(now - tickStart);
+        phaseEvent = null;
+
+        if (tickEvent != null){
+            tickEvent.end();
+            if (tickEvent.shouldCommit()){
+                tickEvent.simulation = name;
+                tickEvent.day = day;
+                tickEvent.animalsNumber = animalsNumber;
+                tickEvent.grassNumber = grassNumber;
+                tickEvent.commit();
+            }
+            tickEvent = null;
+        }
+
+        ticks++;
+        lastTickEnd = now;
+
+        if (now - windowStart >= rateWindow){
+            long windowTicks = ticks - windowStartTicks;
+            double[] recent = new double[phases.length];
+            for (int phase = 0; phase < phases.length; phase++){
+                long sum = phases[phase].getSum();
+                recent[phase] = (windowTicks == 0) ? 0 : (sum - windowStartSums[phase]) / 1e3 / windowTicks;
+                windowStartSums[phase] = sum;
+            }
+
+            recentPhaseMicros = recent;
+            ticksPerSecond = windowTicks * 1e9 / (now - windowStart);
+            windowStart = now;
+            windowStartTicks = ticks;
+        }
+    }
+
+    public void addBirths(int births){
+        this.births += births;
+    }
+
+    public void addDeaths(int deaths){
+        this.deaths += deaths;
+    }
+
+    public void addMoves(int moves){
+        this.moves += moves;
+    }
+
+    public void addGrassEaten(int grassEaten){
+        this.grassEaten += grassEaten;
+    }
+
+    private void resetNow(){
+        resetRequested = false;
+        for (LatencyHistogram phase: phases)
+            phase.reset();
+        ticksHistogram.reset();
+
+        ticks = 0;
+        births = 0;
+        deaths = 0;
+        moves = 0;
+        grassEaten = 0;
+        windowStart = 0;
+        windowStartTicks = 0;
+        Arrays.fill(windowStartSums, 0);
+    }
+
+    public void register(String name){
+        this.name = name;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        try {
+            objectName = new ObjectName("darwin:type=TickMetrics,name=" + ObjectName.quote(name));
+            if (server.isRegistered(objectName)) server.unregisterMBean(objectName);
+            server.registerMBean(this, objectName);
+        } catch (JMException e) {
+            e.printStackTrace();
+            objectName = null;
+        }
+    }
+
+    public void unregister(){
+        if (objectName == null) return;
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+        objectName = null;
+    }
+
+    public String getName(){
+        return name;
+    }
+
+    public LatencyHistogram getPhaseHistogram(int phase){
+        return phases[phase];
+    }
+
+    public LatencyHistogram getTicksHistogram(){
+        return ticksHistogram;
+    }
+
+    @Override
+    public long getTicks(){
+        return ticks;
+    }
+
+    @Override
+    public long getBirths(){
+        return births;
+    }
+
+    @Override
+    public long getDeaths(){
+        return deaths;
+    }
+
+    @Override
+    public long getMoves(){
+        return moves;
+    }
+
+    @Override
+    public long getGrassEaten(){
+        return grassEaten;
+    }
+
+    @Override
+    public double getTicksPerSecond(){
+        long lastTickEnd = this.lastTickEnd;
+        if (lastTickEnd == 0 || System.nanoTime() - lastTickEnd > 2 * rateWindow) return 0;
+        return ticksPerSecond;
+    }
+
+    @Override
+    public double getTickMeanMicros(){
+        return ticksHistogram.getMean() / 1e3;
+    }
+
+    @Override
+    public double getTickP99Micros(){
+        return ticksHistogram.getPercentile(99) / 1e3;
+    }
+
+    @Override
+    public String[] getPhaseNames(){
+        return phaseNames.clone();
+    }
+
+    @Override
+    public double[] getPhaseMeanMicros(){
+        double[] values = new double[phases.length];
+        for (int phase = 0; phase < phases.length; phase++)
+            values[phase] = phases[phase].getMean() / 1e3;
+
+        return values;
+    }
+
+    @Override
+    public double[] getPhaseP50Micros(){
+        return getPhasePercentileMicros(50);
+    }
+
+    @Override
+    public double[] getPhaseP99Micros(){
+        return getPhasePercentileMicros(99);
+    }
+
+    private double[] getPhasePercentileMicros(double percentile){
+        double[] values = new double[phases.length];
+        for (int phase = 0; phase < phases.length; phase++)
+            values[phase] = phases[phase].getPercentile(percentile) / 1e3;
+
+        return values;
+    }
+
+    @Override
+    public double[] getPhaseMaxMicros(){
+        double[] values = new double[phases.length];
+        for (int phase = 0; phase < phases.length; phase++)
+            values[phase] = phases[phase].getMax() / 1e3;
+
+        return values;
+    }
+
+    @Override
+    public double[] getRecentPhaseMicros(){
+        return recentPhaseMicros.clone();
+    }
+
+    @Override
+    public void reset(){
+        resetRequested = true;
+    }
+
+    public String getSummary(){
+        double[] recent = getRecentPhaseMicros();
+        double total = 0;
+        for (double value: recent)
+            total += value;
+
+        StringBuilder summary = new StringBuilder(String.format("%.1f ticks/s", getTicksPerSecond()));
+        for (int phase = 0; phase < phases.length; phase++){
+            double share = (total == 0) ? 0 : recent[phase] * 100 / total;
+            summary.append(String.format("%n%-12s %8.1f us %5.1f%%", phaseNames[phase], recent[phase], share));
+        }
+
+        return summary.toString();
+    }
+}
@@ -0,0 +1,33 @@
+package darwin;
+
+public interface TickMetricsMBean {
+    long getTicks();
+
+    long getBirths();
+
+    long getDeaths();
+
+    long getMoves();
+
+    long getGrassEaten();
+
+    double getTicksPerSecond();
+
+    double getTickMeanMicros();
+
+    double getTickP99Micros();
+
+    String[] getPhaseNames();
+
+    double[] getPhaseMeanMicros();
+
+    double[] getPhaseP50Micros();
+
+    double[] getPhaseP99Micros();
+
+    double[] getPhaseMaxMicros();
+
+    double[] getRecentPhaseMicros();
+
+    void reset();
+}
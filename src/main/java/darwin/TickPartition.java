@@ -0,0 +1,66 @@
+package darwin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+
+public class TickPartition {
+    public static final int chunkSize = 4096;
+    private static final int maxStripesNumber = 64;
+    private final ForkJoinPool pool;
+    private final int threadsNumber;
+    private final int stripesNumber;
+    private final int cellsPerStripe;
+
+    public TickPartition(int width, int height, int threadsNumber){
+        this.threadsNumber = Math.max(1, threadsNumber);
+        int maxStripes = Math.max(1, Math.min(height, maxStripesNumber));
+        int rowsPerStripe = (height + maxStripes - 1) / maxStripes;
+        this.cellsPerStripe = rowsPerStripe * width;
+        this.stripesNumber = (height + rowsPerStripe - 1) / rowsPerStripe;
+        this.pool = (this.threadsNumber > 1) ? new ForkJoinPool(this.threadsNumber) : null;
+    }
+
+    public void forEach(int tasksNumber, IntConsumer task){
+        if (pool == null || tasksNumber <= 1){
+            for (int i = 0; i < tasksNumber; i++)
+                task.accept(i);
+            return;
+        }
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(tasksNumber);
+        for (int i = 0; i < tasksNumber; i++){
+            int index = i;
+            tasks.add(pool.submit(() -> task.accept(index)));
+        }
+
+        for (ForkJoinTask<?> forkJoinTask: tasks)
+            forkJoinTask.join();
+    }
+
+    public int getStripe(int cell){
+        return cell / cellsPerStripe;
+    }
+
+    public int getStripeStart(IntArrayList sortedCells, int stripe){
+        return sortedCells.lowerBound(stripe * cellsPerStripe);
+    }
+
+    public int getStripesNumber(){
+        return stripesNumber;
+    }
+
+    public int getChunksNumber(int slotsNumber){
+        return (slotsNumber + chunkSize - 1) / chunkSize;
+    }
+
+    public int getThreadsNumber(){
+        return threadsNumber;
+    }
+
+    public void shutdown(){
+        if (pool != null) pool.shutdown();
+    }
+}
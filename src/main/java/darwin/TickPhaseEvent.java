@@ -0,0 +1,26 @@
+package darwin;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("darwin.TickPhase")
+@Label("Simulation Tick Phase")
+@Description("One phase of a simulation day: deleteDead, move, eat, reproduce, grassGrowth or observer")
+@Category({"Darwin World", "Simulation"})
+@Enabled(false)
+@StackTrace(false)
+public class TickPhaseEvent extends Event {
+    @Label("Simulation")
+    String simulation;
+
+    @Label("Day")
+    int day;
+
+    @Label("Phase")
+    String phase;
+}
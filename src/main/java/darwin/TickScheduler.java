@@ -0,0 +1,26 @@
+package darwin;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+public class TickScheduler {
+    public enum Mode {FIXED_RATE, AS_FAST_AS_POSSIBLE, TARGET_TICKS_PER_SECOND, SINGLE_STEP}
+
+    private final ScheduledExecutorService executor;
+
+    public TickScheduler(int threadsNumber){
+        this.executor = Executors.newScheduledThreadPool(Math.max(1, threadsNumber), runnable -> {
+            Thread thread = new Thread(runnable, "tick-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public ScheduledSimulation schedule(SimulationEngine engine){
+        return new ScheduledSimulation(engine, executor);
+    }
+
+    public void shutdown(){
+        executor.shutdownNow();
+    }
+}
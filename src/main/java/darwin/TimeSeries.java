@@ -0,0 +1,69 @@
+package darwin;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TimeSeries {
+    private static final int chunkBits = 12;
+    private static final int chunkSize = 1 << chunkBits;
+    private final boolean integerValues;
+    private double[][] chunks = new double[1][];
+    private int size = 0;
+    private double sum = 0;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TimeSeries(boolean integerValues){
+        this.integerValues = integerValues;
+    }
+
+    public void add(double value){
+        int chunk = size >>> chunkBits;
+        if (chunk == chunks.length) chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        if (chunks[chunk] == null) chunks[chunk] = new double[chunkSize];
+
+        chunks[chunk][size & (chunkSize - 1)] = value;
+        size++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public double get(int index){
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return chunks[index >>> chunkBits][index & (chunkSize - 1)];
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public double getMean(){
+        return sum / size;
+    }
+
+    public double getMin(){
+        return min;
+    }
+
+    public double getMax(){
+        return max;
+    }
+
+    public List<Number> asList(){
+        return new AbstractList<>() {
+            @Override
+            public Number get(int index) {
+                double value = TimeSeries.this.get(index);
+                if (integerValues) return (int) value;
+                return (float) value;
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package darwin;
+
+public abstract class Topology {
+    public static final int directionsNumber = 8;
+    protected final int width;
+    protected final int height;
+    private final int[] moves;
+    private final byte[] rotations = new byte[directionsNumber * directionsNumber];
+
+    protected Topology(int width, int height){
+        this.width = width;
+        this.height = height;
+        this.moves = new int[width * height * directionsNumber];
+
+        for (int y = 0; y < height; y++){
+            for (int x = 0; x < width; x++){
+                for (int direction = 0; direction < directionsNumber; direction++)
+                    moves[(x + y * width) * directionsNumber + direction] = computeMove(x, y, direction);
+            }
+        }
+
+        for (int direction = 0; direction < directionsNumber; direction++){
+            for (int rotation = 0; rotation < directionsNumber; rotation++)
+                rotations[direction * directionsNumber + rotation] = (byte) ((direction + rotation) % directionsNumber);
+        }
+    }
+
+    protected abstract int computeMove(int x, int y, int direction);
+
+    protected int packMove(int x, int y, int direction){
+        return (x + y * width) * directionsNumber + direction;
+    }
+
+    public int moveForward(int cell, int direction){
+        return moves[cell * directionsNumber + direction];
+    }
+
+    public int moveBackward(int cell, int direction){
+        int move = moves[cell * directionsNumber + ((direction + directionsNumber / 2) % directionsNumber)];
+        return move - getDirection(move) + (getDirection(move) + directionsNumber / 2) % directionsNumber;
+    }
+
+    public int rotate(int direction, int rotation){
+        return rotations[direction * directionsNumber + rotation];
+    }
+
+    public static int getCell(int move){
+        return move / directionsNumber;
+    }
+
+    public static int getDirection(int move){
+        return move % directionsNumber;
+    }
+}
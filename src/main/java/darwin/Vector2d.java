@@ -1,7 +1,5 @@
 package darwin;
 
-import java.util.Objects;
-
 public class Vector2d {
     final public int x;
     final public int y;
@@ -82,7 +80,7 @@ public class Vector2d {
 
     @Override
     public int hashCode() {
-        return Objects.hash(x, y);
+        return 31 * x + y;
     }
 
     @Override
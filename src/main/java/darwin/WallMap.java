@@ -2,7 +2,6 @@ package darwin;
 
 public class WallMap extends AbstractMap{
     public WallMap(int width, int height, float jungleRatio) {
-        super(width, height, jungleRatio);
-        isFenced = true;
+        super(width, height, jungleRatio, new WallTopology(width, height));
     }
 }
@@ -0,0 +1,15 @@
+package darwin;
+
+public class WallTopology extends Topology {
+    public WallTopology(int width, int height){
+        super(width, height);
+    }
+
+    @Override
+    protected int computeMove(int x, int y, int direction){
+        int newX = Math.min(Math.max(x + MapDirections.getUnitX(direction), 0), width - 1);
+        int newY = Math.min(Math.max(y + MapDirections.getUnitY(direction), 0), height - 1);
+
+        return packMove(newX, newY, direction);
+    }
+}
@@ -0,0 +1,15 @@
+package darwin;
+
+public class WrapTopology extends Topology {
+    public WrapTopology(int width, int height){
+        super(width, height);
+    }
+
+    @Override
+    protected int computeMove(int x, int y, int direction){
+        int newX = Math.floorMod(x + MapDirections.getUnitX(direction), width);
+        int newY = Math.floorMod(y + MapDirections.getUnitY(direction), height);
+
+        return packMove(newX, newY, direction);
+    }
+}
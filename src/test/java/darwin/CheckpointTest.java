@@ -0,0 +1,64 @@
+package darwin;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class CheckpointTest {
+    private static final int checkpointDay = 50;
+    private static final int days = 120;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void byteBufferRoundTrip() throws Exception {
+        StatsRecorder recorder = new StatsRecorder(checkpointDay, checkpointDay);
+        recorder.withEngine(1).run();
+        Checkpoint checkpoint = recorder.checkpoint;
+        assertNotNull(checkpoint);
+
+        Checkpoint restored = Checkpoint.fromByteBuffer(checkpoint.toByteBuffer(), "test");
+        assertEquals(checkpoint.getDay(), restored.getDay());
+        assertEquals(checkpoint.getAnimalsNumber(), restored.getAnimalsNumber());
+        assertArrayEquals(StatsRecorder.toBytes(checkpoint), StatsRecorder.toBytes(restored));
+    }
+
+    @Test
+    public void fileRoundTrip() throws Exception {
+        StatsRecorder recorder = new StatsRecorder(checkpointDay, checkpointDay);
+        recorder.withEngine(1).run();
+
+        String fileName = directory.resolve("test.dwc").toString();
+        recorder.checkpoint.write(fileName);
+        Checkpoint restored = Checkpoint.read(fileName);
+
+        assertEquals(checkpointDay, restored.getDay());
+        assertArrayEquals(StatsRecorder.toBytes(recorder.checkpoint), StatsRecorder.toBytes(restored));
+    }
+
+    @Test
+    public void resumedRunMatchesUninterruptedRun() throws Exception {
+        StatsRecorder uninterrupted = new StatsRecorder(days, checkpointDay);
+        List<String> allDays = uninterrupted.withEngine(1).run();
+
+        String fileName = directory.resolve("resume.dwc").toString();
+        uninterrupted.checkpoint.write(fileName);
+
+        for (int threadsNumber: new int[]{1, 3}){
+            StatsRecorder resumed = new StatsRecorder(days);
+            resumed.engine = new SimulationEngine(Checkpoint.read(fileName), resumed);
+            resumed.engine.setThreadsNumber(threadsNumber);
+
+            assertEquals(checkpointDay, resumed.engine.getCurrDay());
+            assertEquals(allDays.subList(checkpointDay, allDays.size()), resumed.run(),
+                    "resumed with " + threadsNumber + " threads");
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package darwin;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class EventLogTest {
+    private static final int days = 100;
+    private static final int keyframeInterval = 20;
+
+    @TempDir
+    Path directory;
+
+    private String writeLog(List<String> recordedDays) throws Exception {
+        String fileName = directory.resolve("test.dwe").toString();
+        StatsRecorder recorder = new StatsRecorder(days).withEngine(1);
+
+        try (EventLogWriter eventLog = new EventLogWriter(fileName, keyframeInterval)) {
+            recorder.engine.setEventLog(eventLog);
+            recordedDays.addAll(recorder.run());
+        }
+
+        return fileName;
+    }
+
+    @Test
+    public void eventLogDoesNotChangeStats() throws Exception {
+        List<String> loggedDays = new ArrayList<>();
+        writeLog(loggedDays);
+
+        StatsRecorder plain = new StatsRecorder(days);
+        assertEquals(plain.withEngine(1).run(), loggedDays);
+    }
+
+    @Test
+    public void replayReproducesStats() throws Exception {
+        List<String> recordedDays = new ArrayList<>();
+        String fileName = writeLog(recordedDays);
+
+        try (EventLogReader reader = new EventLogReader(fileName)) {
+            assertEquals(0, reader.getFirstDay());
+            assertEquals(days, reader.getLastDay());
+
+            StatsRecorder replay = new StatsRecorder(days);
+            replay.engine = reader.createReplay(0, replay);
+            assertEquals(recordedDays, replay.run());
+        }
+    }
+
+    @Test
+    public void seekingFromKeyframeReproducesStats() throws Exception {
+        List<String> recordedDays = new ArrayList<>();
+        String fileName = writeLog(recordedDays);
+
+        try (EventLogReader reader = new EventLogReader(fileName)) {
+            for (int fromDay: new int[]{keyframeInterval, 2 * keyframeInterval + 7, days - 1}){
+                StatsRecorder replay = new StatsRecorder(days);
+                replay.engine = reader.createReplay(fromDay, replay);
+
+                assertEquals(fromDay, replay.engine.getCurrDay());
+                assertEquals(recordedDays.subList(fromDay, days), replay.run(), "replay from day " + fromDay);
+            }
+        }
+    }
+}
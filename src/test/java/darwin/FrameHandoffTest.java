@@ -0,0 +1,53 @@
+package darwin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FrameHandoffTest {
+    private static final byte[] flags = {MapFrame.jungleFlag, MapFrame.grassFlag, MapFrame.animalFlag,
+            MapFrame.dominantFlag, MapFrame.observedFlag};
+    private FrameHandoff handoff;
+
+    @Test
+    public void updatedFramesMatchFullCaptures(){
+        IAppObserver observer = (map, day, animalsNumber, grassNumber, averageEnergy, averageLifetime,
+                                 averageChildrenNumber, magicBornCounter) -> handoff.publish(map,
+                new DayStats(day, animalsNumber, grassNumber, averageEnergy, averageLifetime, averageChildrenNumber,
+                        magicBornCounter));
+        SimulationEngine engine = new SimulationEngine(60, 40, 0.2f, 600, 100, 1, 40, 0, false, false, observer, 5L);
+        AbstractMap map = engine.getMap();
+        handoff = new FrameHandoff(map.getWidth() * map.getHeight());
+        for (int cell = 0; map.observedAnimal == null; cell++)
+            map.observedAnimal = map.animalCells.getTheStrongest(cell);
+
+        SimulationRandom random = new SimulationRandom(1L);
+        int checkedFrames = 0;
+        for (int day = 0; day < 300 && engine.isActive(); day++){
+            engine.tick();
+            if (random.nextInt(3) == 0) continue;
+
+            MapFrame frame = handoff.take(new ArrayList<>(), new IntArrayList());
+            MapFrame full = MapFrame.capture(map, frame.getStats());
+            checkedFrames++;
+
+            assertEquals(engine.getCurrDay(), frame.getStats().getDay());
+            assertEquals(full.getDominantGenotype(), frame.getDominantGenotype());
+            assertEquals(full.getObservedCell(), frame.getObservedCell());
+            for (int y = 0; y < map.getHeight(); y++){
+                for (int x = 0; x < map.getWidth(); x++){
+                    for (byte flag: flags)
+                        assertEquals(full.hasFlag(x, y, flag), frame.hasFlag(x, y, flag),
+                                "flag " + flag + " at " + x + "," + y + " on day " + engine.getCurrDay());
+                    assertEquals(full.getTopEnergy(x, y), frame.getTopEnergy(x, y));
+                }
+            }
+        }
+
+        assertTrue(checkedFrames > 100);
+    }
+}
@@ -0,0 +1,85 @@
+package darwin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class GenomeTest {
+    private static long[] pack(int[] genes){
+        long[] words = new long[2];
+        for (int i = 0; i < Genome.genesNumber; i++)
+            words[i / Genome.genesPerWord] = Genome.setGene(words[i / Genome.genesPerWord], i % Genome.genesPerWord,
+                    genes[i]);
+
+        return words;
+    }
+
+    private static int[] genes(int seed){
+        int[] genes = new int[Genome.genesNumber];
+        for (int i = 0; i < genes.length; i++)
+            genes[i] = (i * 5 + seed) % Genome.genesTypesNumber;
+
+        return genes;
+    }
+
+    @Test
+    public void setAndGetGenes(){
+        int[] genes = genes(3);
+        long[] words = pack(genes);
+
+        for (int i = 0; i < Genome.genesNumber; i++)
+            assertEquals(genes[i], Genome.getGene(words[0], words[1], i));
+
+        List<Integer> expected = new ArrayList<>();
+        for (int gene: genes)
+            expected.add(gene);
+        assertEquals(expected, Genome.toList(words[0], words[1]));
+    }
+
+    @Test
+    public void setGeneOverwritesOnlyItsSlot(){
+        long word = Genome.setGene(-1L >>> 16, 4, 0);
+
+        for (int i = 0; i < Genome.genesPerWord; i++)
+            assertEquals((i == 4) ? 0 : 7, Genome.getGene(word, 0, i));
+    }
+
+    @Test
+    public void crossoverTakesLeftGenesThenRightGenes(){
+        int[] left = genes(1);
+        int[] right = genes(6);
+        long[] leftWords = pack(left);
+        long[] rightWords = pack(right);
+
+        for (int leftGenesNumber = 0; leftGenesNumber <= Genome.genesNumber; leftGenesNumber++){
+            long low = Genome.crossLow(leftWords[0], rightWords[0], leftGenesNumber);
+            long high = Genome.crossHigh(leftWords[1], rightWords[1], leftGenesNumber);
+
+            for (int i = 0; i < Genome.genesNumber; i++)
+                assertEquals((i < leftGenesNumber) ? left[i] : right[i], Genome.getGene(low, high, i),
+                        "gene " + i + " with " + leftGenesNumber + " left genes");
+        }
+    }
+
+    @Test
+    public void sortedWordsFollowOccurrences(){
+        int[] genes = genes(2);
+        long occurrences = 0;
+        for (int gene: genes)
+            occurrences = Genome.addOccurrence(occurrences, gene);
+
+        int[] sorted = genes.clone();
+        Arrays.sort(sorted);
+        for (int gene = 0; gene < Genome.genesTypesNumber; gene++)
+            assertEquals(4, Genome.getOccurrences(occurrences, gene));
+
+        long low = Genome.sortedWord(occurrences, 0);
+        long high = Genome.sortedWord(occurrences, Genome.genesPerWord);
+        for (int i = 0; i < Genome.genesNumber; i++)
+            assertEquals(sorted[i], Genome.getGene(low, high, i));
+    }
+}
@@ -0,0 +1,96 @@
+package darwin;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GenotypeTrackerTest {
+    private static void assertRanked(GenotypeTracker tracker){
+        for (int rank = 1; rank < tracker.size(); rank++)
+            assertTrue(tracker.getCount(rank - 1) >= tracker.getCount(rank), "rank " + rank);
+
+        for (int rank = 0; rank < tracker.size(); rank++)
+            assertEquals(tracker.getCount(rank), tracker.getOccurrences(tracker.getGenesLow(rank),
+                    tracker.getGenesHigh(rank)));
+    }
+
+    @Test
+    public void mostFrequentGenotypeHasFirstRank(){
+        GenotypeTracker tracker = new GenotypeTracker();
+        for (int genotype = 0; genotype < 5; genotype++){
+            for (int i = 0; i <= genotype; i++)
+                tracker.increment(genotype, -genotype);
+        }
+
+        assertEquals(5, tracker.size());
+        assertEquals(4, tracker.getGenesLow(0));
+        assertEquals(-4, tracker.getGenesHigh(0));
+        assertEquals(5, tracker.getCount(0));
+        assertRanked(tracker);
+    }
+
+    @Test
+    public void decrementMovesGenotypeDownAndRemovesIt(){
+        GenotypeTracker tracker = new GenotypeTracker();
+        tracker.increment(1, 1);
+        tracker.increment(1, 1);
+        tracker.increment(1, 1);
+        tracker.increment(2, 2);
+        tracker.increment(2, 2);
+
+        tracker.decrement(1, 1);
+        tracker.decrement(1, 1);
+        assertEquals(2, tracker.getGenesLow(0));
+        assertEquals(1, tracker.getOccurrences(1, 1));
+        assertRanked(tracker);
+
+        tracker.decrement(1, 1);
+        tracker.decrement(3, 3);
+        assertEquals(1, tracker.size());
+        assertEquals(0, tracker.getOccurrences(1, 1));
+        assertRanked(tracker);
+    }
+
+    @Test
+    public void rankOrderHoldsUnderManyUpdates(){
+        GenotypeTracker tracker = new GenotypeTracker();
+        SimulationRandom random = new SimulationRandom(7L);
+        int[] counts = new int[40];
+
+        for (int step = 0; step < 5000; step++){
+            int genotype = random.nextInt(counts.length);
+            if (counts[genotype] > 0 && random.nextInt(3) == 0){
+                tracker.decrement(genotype, 0);
+                counts[genotype]--;
+            }
+            else {
+                tracker.increment(genotype, 0);
+                counts[genotype]++;
+            }
+        }
+
+        int present = 0;
+        for (int genotype = 0; genotype < counts.length; genotype++){
+            assertEquals(counts[genotype], tracker.getOccurrences(genotype, 0));
+            if (counts[genotype] > 0) present++;
+        }
+        assertEquals(present, tracker.size());
+        assertRanked(tracker);
+    }
+
+    @Test
+    public void restoredEntriesKeepRankOrder(){
+        GenotypeTracker tracker = new GenotypeTracker();
+        tracker.restoreEntry(9, 9, 6);
+        tracker.restoreEntry(8, 8, 3);
+        tracker.increment(8, 8);
+        tracker.increment(8, 8);
+        tracker.increment(8, 8);
+        tracker.increment(8, 8);
+
+        assertEquals(8, tracker.getGenesLow(0));
+        assertEquals(7, tracker.getCount(0));
+        assertRanked(tracker);
+    }
+}
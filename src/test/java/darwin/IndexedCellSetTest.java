@@ -0,0 +1,88 @@
+package darwin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IndexedCellSetTest {
+    private static int[] sorted(int[] cells){
+        int[] copy = cells.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    @Test
+    public void addAndRemove(){
+        IndexedCellSet set = new IndexedCellSet(10);
+        assertTrue(set.isEmpty());
+
+        assertTrue(set.add(3));
+        assertTrue(set.add(7));
+        assertTrue(set.add(0));
+        assertFalse(set.add(7));
+        assertEquals(3, set.size());
+        assertTrue(set.contains(7));
+        assertFalse(set.contains(5));
+
+        assertTrue(set.remove(3));
+        assertFalse(set.remove(3));
+        assertFalse(set.remove(5));
+        assertFalse(set.contains(3));
+        assertArrayEquals(new int[]{0, 7}, sorted(set.toArray()));
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(7));
+        assertTrue(set.add(7));
+    }
+
+    @Test
+    public void getPicksEveryCellOnce(){
+        IndexedCellSet set = new IndexedCellSet(100);
+        for (int cell = 0; cell < 100; cell += 3)
+            set.add(cell);
+        for (int cell = 0; cell < 100; cell += 6)
+            set.remove(cell);
+
+        int[] picked = new int[set.size()];
+        for (int index = 0; index < set.size(); index++){
+            picked[index] = set.get(index);
+            assertTrue(set.contains(picked[index]));
+        }
+
+        assertArrayEquals(sorted(set.toArray()), sorted(picked));
+        for (int cell: picked)
+            assertEquals(3, cell % 6);
+    }
+
+    @Test
+    public void matchesReferenceSetUnderRandomUpdates(){
+        IndexedCellSet set = new IndexedCellSet(500);
+        boolean[] reference = new boolean[500];
+        SimulationRandom random = new SimulationRandom(3L);
+        int size = 0;
+
+        for (int step = 0; step < 20000; step++){
+            int cell = random.nextInt(reference.length);
+            if (random.nextBoolean()){
+                assertEquals(!reference[cell], set.add(cell));
+                if (!reference[cell]) size++;
+                reference[cell] = true;
+            }
+            else {
+                assertEquals(reference[cell], set.remove(cell));
+                if (reference[cell]) size--;
+                reference[cell] = false;
+            }
+        }
+
+        assertEquals(size, set.size());
+        for (int index = 0; index < set.size(); index++)
+            assertTrue(reference[set.get(index)]);
+    }
+}
@@ -0,0 +1,79 @@
+package darwin;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RankedCellSetTest {
+    private static void assertMatches(boolean[] reference, RankedCellSet set){
+        int size = 0;
+        for (boolean present: reference)
+            if (present) size++;
+
+        int[] cells = new int[size];
+        int index = 0;
+        for (int cell = 0; cell < reference.length; cell++){
+            assertEquals(reference[cell], set.contains(cell), "cell " + cell);
+            if (reference[cell]) cells[index++] = cell;
+        }
+
+        assertEquals(size, set.size());
+        assertArrayEquals(cells, set.toArray());
+        for (int rank = 0; rank < size; rank++)
+            assertEquals(cells[rank], set.get(rank), "rank " + rank);
+    }
+
+    @Test
+    public void addRangeCoversPartialAndFullWords(){
+        int cellsNumber = 64 * 64 * 3 + 17;
+        RankedCellSet set = new RankedCellSet(cellsNumber);
+        boolean[] reference = new boolean[cellsNumber];
+
+        set.add(70);
+        reference[70] = true;
+        int[][] ranges = {{5, 9}, {60, 200}, {128, 192}, {1000, 9000}, {cellsNumber - 30, cellsNumber}};
+        for (int[] range: ranges){
+            set.addRange(range[0], range[1]);
+            for (int cell = range[0]; cell < range[1]; cell++)
+                reference[cell] = true;
+        }
+
+        assertMatches(reference, set);
+    }
+
+    @Test
+    public void matchesReferenceSetUnderRandomUpdates(){
+        RankedCellSet set = new RankedCellSet(10000);
+        boolean[] reference = new boolean[10000];
+        SimulationRandom random = new SimulationRandom(11L);
+
+        for (int step = 0; step < 30000; step++){
+            int cell = random.nextInt(reference.length);
+            if (random.nextInt(3) != 0){
+                assertEquals(!reference[cell], set.add(cell));
+                reference[cell] = true;
+            }
+            else {
+                assertEquals(reference[cell], set.remove(cell));
+                reference[cell] = false;
+            }
+        }
+
+        assertMatches(reference, set);
+        assertFalse(set.isEmpty());
+    }
+
+    @Test
+    public void emptiedSetIsEmpty(){
+        RankedCellSet set = new RankedCellSet(300);
+        set.addRange(0, 300);
+        for (int cell = 0; cell < 300; cell++)
+            assertTrue(set.remove(cell));
+
+        assertTrue(set.isEmpty());
+        assertEquals(0, set.toArray().length);
+    }
+}
@@ -0,0 +1,53 @@
+package darwin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SimulationEngineTest {
+    private static final int days = 120;
+    private static final int denseDays = 40;
+
+    @Test
+    public void sameStatsAndStateForOneAndManyThreads(){
+        StatsRecorder single = new StatsRecorder(days, days).withEngine(1);
+        List<String> singleDays = single.run();
+
+        for (int threadsNumber: new int[]{2, 4}){
+            StatsRecorder parallel = new StatsRecorder(days, days).withEngine(threadsNumber);
+            assertEquals(singleDays, parallel.run(), "stats with " + threadsNumber + " threads");
+            assertArrayEquals(StatsRecorder.toBytes(single.checkpoint), StatsRecorder.toBytes(parallel.checkpoint),
+                    "state with " + threadsNumber + " threads");
+        }
+    }
+
+    @Test
+    public void sameStatsAndStateForManyChunks(){
+        StatsRecorder single = new StatsRecorder(denseDays, denseDays).withEngine(200, 200, 12000, 200, 1);
+        List<String> singleDays = single.run();
+        assertEquals(denseDays, singleDays.size());
+        assertTrue(single.checkpoint.getAnimalsNumber() > 2 * TickPartition.chunkSize,
+                "population should span several move chunks");
+
+        for (int threadsNumber: new int[]{2, 4}){
+            StatsRecorder parallel = new StatsRecorder(denseDays, denseDays).withEngine(200, 200, 12000, 200,
+                    threadsNumber);
+            assertEquals(singleDays, parallel.run(), "stats with " + threadsNumber + " threads");
+            assertArrayEquals(StatsRecorder.toBytes(single.checkpoint), StatsRecorder.toBytes(parallel.checkpoint),
+                    "state with " + threadsNumber + " threads");
+        }
+    }
+
+    @Test
+    public void sameStatsForSameSeed(){
+        StatsRecorder first = new StatsRecorder(days);
+        StatsRecorder second = new StatsRecorder(days);
+
+        assertEquals(first.withEngine(1).run(), second.withEngine(1).run());
+        assertEquals(days, first.days.size());
+    }
+}
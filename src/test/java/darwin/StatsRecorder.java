@@ -0,0 +1,55 @@
+package darwin;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class StatsRecorder implements IAppObserver {
+    final List<String> days = new ArrayList<>();
+    private final int lastDay;
+    private final int checkpointDay;
+    SimulationEngine engine = null;
+    Checkpoint checkpoint = null;
+
+    public StatsRecorder(int lastDay){
+        this(lastDay, -1);
+    }
+
+    public StatsRecorder(int lastDay, int checkpointDay){
+        this.lastDay = lastDay;
+        this.checkpointDay = checkpointDay;
+    }
+
+    public StatsRecorder withEngine(int threadsNumber){
+        return withEngine(40, 30, 150, 60, threadsNumber);
+    }
+
+    public StatsRecorder withEngine(int mapWidth, int mapHeight, int startAnimals, int startEnergy, int threadsNumber){
+        engine = new SimulationEngine(mapWidth, mapHeight, 0.2f, startAnimals, startEnergy, 1, 40, 0, true, false,
+                this, 42L);
+        engine.setThreadsNumber(threadsNumber);
+        return this;
+    }
+
+    public static byte[] toBytes(Checkpoint checkpoint){
+        ByteBuffer buffer = checkpoint.toByteBuffer();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    public List<String> run(){
+        engine.run();
+        return days;
+    }
+
+    @Override
+    public void show(AbstractMap map, int day, int animalsNumber, int grassNumber, float averageEnergy,
+                     float averageLifetime, float averageChildrenNumber, int magicBornCounter) {
+        days.add(day + " " + animalsNumber + " " + grassNumber + " " + averageEnergy + " " + averageLifetime + " "
+                + averageChildrenNumber + " " + magicBornCounter);
+
+        if (day == checkpointDay) checkpoint = engine.createCheckpoint();
+        if (day >= lastDay) engine.finished = true;
+    }
+}